@@ -1,8 +1,19 @@
 package study.querydsl;
 
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 
@@ -10,39 +21,138 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.transaction.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Profile("local")
 @Component
 @RequiredArgsConstructor
 public class InitMember {
 
     private final InitMemberService initMemberService;
+    private final InitMemberSnapshot initMemberSnapshot;
+    private final InitMemberProperties initMemberProperties;
+
+    private volatile boolean completed = false;
 
     /**
      * PostConstruct 로직과 Transactional 로직은 분리되어야 한다.
+     *
+     * - SYNC : 기존처럼 기동 중에 데이터를 모두 넣는다. (데이터가 많아질수록 기동이 느려진다)
+     * - ASYNC : 기동은 바로 끝내고, 기동 완료 후 백그라운드에서 데이터를 넣는다.
+     * - SNAPSHOT : 스냅샷(CSV)이 있으면 복원하고, 없으면 ASYNC 처럼 넣은 뒤 스냅샷을 만들어 둔다.
      */
     @PostConstruct
     public void init() {
-        initMemberService.init();
+        StopWatch stopWatch = new StopWatch("init-member");
+        stopWatch.start(initMemberProperties.getMode().name());
+
+        switch (initMemberProperties.getMode()) {
+            case SYNC:
+                initMemberService.init(initMemberProperties.getMemberCount());
+                completed = true;
+                break;
+            case SNAPSHOT:
+                completed = initMemberSnapshot.restore();
+                break;
+            default:
+                break;
+        }
+
+        stopWatch.stop();
+        log.info("[init-member] mode = {}, completed = {}, blocking = {}ms",
+                initMemberProperties.getMode(), completed, stopWatch.getTotalTimeMillis());
+    }
+
+    /**
+     * 기동 중에 넣지 못한 데이터는 기동 완료 후 백그라운드에서 넣는다.
+     * > 완료 전까지는 readiness(initMember) 가 OUT_OF_SERVICE 로 응답한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initInBackground() {
+        if (completed) {
+            return;
+        }
+
+        Thread thread = new Thread(() -> {
+            StopWatch stopWatch = new StopWatch("init-member");
+            stopWatch.start(initMemberProperties.getMode().name());
+            try {
+                initMemberService.init(initMemberProperties.getMemberCount());
+                if (initMemberProperties.getMode() == Mode.SNAPSHOT) {
+                    initMemberSnapshot.write();
+                }
+                completed = true;
+            } catch (Exception e) {
+                log.error("[init-member] background init failed", e);
+            } finally {
+                stopWatch.stop();
+                log.info("[init-member] mode = {}, completed = {}, background = {}ms",
+                        initMemberProperties.getMode(), completed, stopWatch.getTotalTimeMillis());
+            }
+        }, "init-member");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public enum Mode {
+        SYNC, ASYNC, SNAPSHOT
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.bootstrap")
+    static class InitMemberProperties {
+
+        private Mode mode = Mode.SYNC;
+        private int memberCount = 100;
+
+        /**
+         * 스냅샷 디렉토리 > CSVREAD/CSVWRITE 는 H2 서버 프로세스 기준으로 경로를 해석한다.
+         */
+        private String snapshotPath = "./build/init-member-snapshot";
+
     }
 
     @Component
     static class InitMemberService {
 
+        private static final int FLUSH_SIZE = 1000;
+
         @PersistenceContext
         private EntityManager entityManager;
 
         @Transactional
-        public void init() {
+        public void init(int memberCount) {
             Team teamA = new Team("teamA");
             Team teamB = new Team("teamB");
             entityManager.persist(teamA);
             entityManager.persist(teamB);
 
-            for (int i = 0; i < 100; i++) {
+            for (int i = 0; i < memberCount; i++) {
                 Team selectedTeam = (i % 2 == 0) ? teamA : teamB;
-                Member member = new Member("member" + i, i, selectedTeam);
+                // Team.addMember 는 contains 로 중복을 검사하므로 대량으로 넣을 때는 연관관계만 건다.
+                Member member = new Member("member" + i, i);
+                member.setTeam(selectedTeam);
                 entityManager.persist(member);
+
+                if ((i + 1) % FLUSH_SIZE == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
             }
 
             entityManager.flush();
@@ -51,4 +161,132 @@ public class InitMember {
 
     }
 
+    /**
+     * H2 CSVWRITE/CSVREAD 로 테이블 단위 스냅샷을 쓰고 읽는다.
+     *
+     * 스키마(테이블/컬럼)와 회원 수가 스냅샷을 만들 때와 다르면 복원하지 않는다.
+     * > ddl-auto: create 로 비어있는 테이블에 넣는 것을 전제로 한다.
+     */
+    @Component
+    @RequiredArgsConstructor
+    static class InitMemberSnapshot {
+
+        private static final String FINGERPRINT_FILE = "schema.txt";
+        private static final String SEQUENCE_FILE = "sequences.csv";
+
+        private final JdbcTemplate jdbcTemplate;
+        private final InitMemberProperties initMemberProperties;
+
+        /**
+         * SET REFERENTIAL_INTEGRITY, ALTER SEQUENCE 는 H2 에서 트랜잭션을 커밋해버리므로
+         * 트랜잭션 롤백 대신 실패하면 테이블을 비워서 원래 상태로 돌린다.
+         */
+        public boolean restore() {
+            Path directory = Paths.get(initMemberProperties.getSnapshotPath()).toAbsolutePath();
+            Path fingerprintFile = directory.resolve(FINGERPRINT_FILE);
+            if (!Files.exists(fingerprintFile)) {
+                return false;
+            }
+            if (!fingerprint().equals(read(fingerprintFile))) {
+                log.warn("[init-member] snapshot is stale, ignored : {}", directory);
+                return false;
+            }
+
+            List<String> tables = tables();
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+            try {
+                for (String table : tables) {
+                    jdbcTemplate.execute("INSERT INTO " + table + " SELECT * FROM CSVREAD(" + literal(directory.resolve(table + ".csv")) + ")");
+                }
+                List<Map<String, Object>> sequences = jdbcTemplate.queryForList(
+                        "SELECT * FROM CSVREAD(" + literal(directory.resolve(SEQUENCE_FILE)) + ")");
+                for (Map<String, Object> sequence : sequences) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence.get("SEQUENCE_NAME") + " RESTART WITH " + sequence.get("BASE_VALUE"));
+                }
+                return true;
+            } catch (DataAccessException e) {
+                log.warn("[init-member] snapshot restore failed, fallback to seeding : {}", directory, e);
+                for (String table : tables) {
+                    jdbcTemplate.execute("TRUNCATE TABLE " + table);
+                }
+                return false;
+            } finally {
+                jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+            }
+        }
+
+        public void write() {
+            Path directory = Paths.get(initMemberProperties.getSnapshotPath()).toAbsolutePath();
+            try {
+                Files.createDirectories(directory);
+                Files.deleteIfExists(directory.resolve(FINGERPRINT_FILE));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (String table : tables()) {
+                jdbcTemplate.execute("CALL CSVWRITE(" + literal(directory.resolve(table + ".csv")) + ", 'SELECT * FROM " + table + "')");
+            }
+            jdbcTemplate.execute("CALL CSVWRITE(" + literal(directory.resolve(SEQUENCE_FILE)) + ", " +
+                    "'SELECT SEQUENCE_NAME, BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_SCHEMA = ''PUBLIC''')");
+
+            // 지문 파일은 마지막에 쓴다 > 중간에 실패한 스냅샷은 복원 대상이 아니다.
+            try {
+                Files.write(directory.resolve(FINGERPRINT_FILE), fingerprint().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.info("[init-member] snapshot written : {}", directory);
+        }
+
+        private List<String> tables() {
+            return jdbcTemplate.queryForList(
+                    "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+                            "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME",
+                    String.class
+            );
+        }
+
+        private String fingerprint() {
+            List<String> columns = jdbcTemplate.queryForList(
+                    "SELECT TABLE_NAME || '.' || COLUMN_NAME || ':' || DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                            "WHERE TABLE_SCHEMA = 'PUBLIC' ORDER BY TABLE_NAME, ORDINAL_POSITION",
+                    String.class
+            );
+            return "memberCount=" + initMemberProperties.getMemberCount() + "\n" + String.join("\n", columns);
+        }
+
+        private String read(Path path) {
+            try {
+                return Files.readAllLines(path, StandardCharsets.UTF_8).stream().collect(Collectors.joining("\n"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private String literal(Path path) {
+            return "'" + path.toString().replace("'", "''") + "'";
+        }
+
+    }
+
+    @Profile("local")
+    @Component("initMemberHealthIndicator")
+    @RequiredArgsConstructor
+    static class InitMemberHealthIndicator implements HealthIndicator {
+
+        private final InitMember initMember;
+        private final InitMemberProperties initMemberProperties;
+
+        @Override
+        public Health health() {
+            Health.Builder builder = initMember.isCompleted() ? Health.up() : Health.outOfService();
+            return builder
+                    .withDetail("mode", initMemberProperties.getMode())
+                    .withDetail("memberCount", initMemberProperties.getMemberCount())
+                    .build();
+        }
+
+    }
+
 }
@@ -1,8 +1,14 @@
 package study.querydsl;
 
+import com.querydsl.jpa.impl.JPAQueryFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import javax.persistence.EntityManager;
+
+@EnableScheduling
 @SpringBootApplication
 public class QuerydslApplication {
 
@@ -10,10 +16,10 @@ public class QuerydslApplication {
 		SpringApplication.run(QuerydslApplication.class, args);
 	}
 
-	/*@Bean
+	@Bean
 	JPAQueryFactory jpaQueryFactory(EntityManager entityManager) {
 		return new JPAQueryFactory(entityManager);
-	}*/
+	}
 
 
 
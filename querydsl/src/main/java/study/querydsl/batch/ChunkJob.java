@@ -0,0 +1,59 @@
+package study.querydsl.batch;
+
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberPath;
+import lombok.Getter;
+import org.springframework.util.Assert;
+
+/**
+ * 청크 배치 잡 정의
+ *
+ * where 조건에 맞는 엔티티를 id 순서로 chunkSize 개씩 읽어(키셋) processor 에 넘긴다.
+ * partitions 가 2 이상이면 ID 구간을 나눠 파티션마다 다른 스레드에서 처리한다.
+ *
+ * 같은 name 의 잡은 체크포인트를 공유한다. > 실패 후 같은 이름으로 다시 실행하면 이어서 처리한다.
+ */
+@Getter
+public class ChunkJob<T> {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1_000;
+
+    private final String name;
+    private final EntityPath<T> entity;
+    private final NumberPath<Long> id;
+    private final Predicate where;
+    private final ChunkProcessor<T> processor;
+    private final int chunkSize;
+    private final int partitions;
+
+    private ChunkJob(String name, EntityPath<T> entity, NumberPath<Long> id, Predicate where,
+                     ChunkProcessor<T> processor, int chunkSize, int partitions) {
+        Assert.hasText(name, "Job name must not be empty!");
+        Assert.isTrue(chunkSize > 0, "Chunk size must be positive!");
+        Assert.isTrue(partitions > 0, "Partitions must be positive!");
+        this.name = name;
+        this.entity = entity;
+        this.id = id;
+        this.where = where;
+        this.processor = processor;
+        this.chunkSize = chunkSize;
+        this.partitions = partitions;
+    }
+
+    public static <T> ChunkJob<T> of(String name, EntityPath<T> entity, NumberPath<Long> id, Predicate where, ChunkProcessor<T> processor) {
+        return new ChunkJob<>(name, entity, id, where, processor, DEFAULT_CHUNK_SIZE, 1);
+    }
+
+    public ChunkJob<T> withChunkSize(int chunkSize) {
+        return new ChunkJob<>(name, entity, id, where, processor, chunkSize, partitions);
+    }
+
+    /**
+     * ID 구간을 partitions 개로 나눠 병렬로 처리한다. 처리 순서는 파티션 안에서만 지켜진다.
+     */
+    public ChunkJob<T> withPartitions(int partitions) {
+        return new ChunkJob<>(name, entity, id, where, processor, chunkSize, partitions);
+    }
+
+}
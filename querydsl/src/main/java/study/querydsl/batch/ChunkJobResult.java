@@ -0,0 +1,21 @@
+package study.querydsl.batch;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * 이번 실행에서 처리한 양 (이어서 실행했다면 이전 실행분은 빠진다)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class ChunkJobResult {
+
+    private final String jobName;
+    private final int partitions;
+    private final long processed;
+    private final long chunks;
+    private final boolean resumed;
+
+}
@@ -0,0 +1,294 @@
+package study.querydsl.batch;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.BatchCheckpoint;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.event.TableVersions;
+import study.querydsl.shard.Shard;
+import study.querydsl.shard.ShardRegistry;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static study.querydsl.entity.QBatchCheckpoint.batchCheckpoint;
+
+/**
+ * 청크 배치 잡 실행기
+ *
+ * 청크마다 트랜잭션을 새로 연다. (REQUIRES_NEW)
+ *  1. id > lastId 인 엔티티를 chunkSize 개 읽는다. (키셋 > offset 처럼 뒤로 갈수록 느려지지 않는다)
+ *  2. processor 에 넘긴다.
+ *  3. 체크포인트를 옮기고 flush (hibernate.jdbc.batch_size 로 JDBC 배치) 후 영속성 컨텍스트를 비운다.
+ *  4. 커밋 > 메모리에는 청크 하나만 남는다.
+ *
+ * 이전 실행의 체크포인트가 남아 있으면(미완료 파티션) 그 구간을 lastId 다음부터 이어서 처리한다.
+ * 모든 파티션이 끝난 잡을 다시 실행하면 체크포인트를 지우고 처음부터 처리한다.
+ *
+ * 샤딩을 켜면(querydsl.shard.enabled) 회원/팀 잡은 샤드의 엔티티를 처리한다.
+ *  - 샤드마다 ID 구간을 partitions 개로 나눈다. (샤드 ID 구간이 겹치지 않으므로 rangeStart 로 샤드를 찾는다)
+ *  - 체크포인트는 기본 DB 에 두고, 청크는 체크포인트 트랜잭션 안에서 샤드 트랜잭션으로 처리한다.
+ *    ! 샤드 커밋 뒤 체크포인트 커밋이 실패하면 그 청크를 다시 처리한다. (최소 한 번) > processor 는 같은 청크를 다시 받아도 되게 만든다.
+ *  - processor 는 넘겨받은 엔티티만 바꾼다. (기본 DB 의 EntityManager / 저장소는 샤드 트랜잭션에 묶이지 않는다)
+ */
+@Slf4j
+@Component
+public class ChunkJobRunner {
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final TableVersions tableVersions;
+
+    public ChunkJobRunner(JPAQueryFactory jpaQueryFactory, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                          ObjectProvider<ShardRegistry> shardRegistry, TableVersions tableVersions) {
+        this.jpaQueryFactory = jpaQueryFactory;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.shardRegistry = shardRegistry;
+        this.tableVersions = tableVersions;
+    }
+
+    public <T> ChunkJobResult run(ChunkJob<T> job) {
+        ShardRegistry shards = shardsOf(job);
+        boolean[] resumed = new boolean[1];
+        List<BatchCheckpoint> checkpoints = transactionTemplate.execute(status -> preparePartitions(job, shards, resumed));
+
+        List<long[]> results = checkpoints.size() <= 1
+                ? runSequential(job, shards, checkpoints)
+                : runParallel(job, shards, checkpoints);
+
+        long processed = results.stream().mapToLong(result -> result[0]).sum();
+        long chunks = results.stream().mapToLong(result -> result[1]).sum();
+        log.info("[batch] job = {}, partitions = {}, processed = {}, chunks = {}, resumed = {}",
+                job.getName(), checkpoints.size(), processed, chunks, resumed[0]);
+        return new ChunkJobResult(job.getName(), checkpoints.size(), processed, chunks, resumed[0]);
+    }
+
+    /**
+     * 미완료 체크포인트가 있으면 그대로 이어서 쓰고, 없으면 조건에 맞는 ID 범위를 파티션 수만큼 나눈다.
+     */
+    private <T> List<BatchCheckpoint> preparePartitions(ChunkJob<T> job, ShardRegistry shards, boolean[] resumed) {
+        List<BatchCheckpoint> existing = jpaQueryFactory
+                .selectFrom(batchCheckpoint)
+                .where(batchCheckpoint.jobName.eq(job.getName()))
+                .orderBy(batchCheckpoint.partitionNo.asc())
+                .fetch();
+
+        List<BatchCheckpoint> incomplete = new ArrayList<>();
+        for (BatchCheckpoint checkpoint : existing) {
+            if (!checkpoint.isCompleted()) {
+                incomplete.add(checkpoint);
+            }
+        }
+        if (!incomplete.isEmpty()) {
+            log.info("[batch] job = {} resumes from {}", job.getName(), incomplete);
+            resumed[0] = true;
+            return incomplete;
+        }
+
+        jpaQueryFactory
+                .delete(batchCheckpoint)
+                .where(batchCheckpoint.jobName.eq(job.getName()))
+                .execute();
+
+        List<BatchCheckpoint> checkpoints = new ArrayList<>();
+        if (shards == null) {
+            addPartitions(job, idRange(job, jpaQueryFactory), checkpoints);
+        } else {
+            for (Shard shard : shards.getShards()) {
+                addPartitions(job, shard.read(shardEntityManager -> idRange(job, new JPAQueryFactory(shardEntityManager))), checkpoints);
+            }
+        }
+        return checkpoints;
+    }
+
+    private <T> Tuple idRange(ChunkJob<T> job, JPAQueryFactory queryFactory) {
+        return queryFactory
+                .select(job.getId().min(), job.getId().max())
+                .from(job.getEntity())
+                .where(job.getWhere())
+                .fetchOne();
+    }
+
+    /**
+     * ID 구간을 partitions 개로 나눈다. 파티션 번호는 앞서 만든 파티션 다음부터 붙인다.
+     */
+    private <T> void addPartitions(ChunkJob<T> job, Tuple range, List<BatchCheckpoint> checkpoints) {
+        Long min = range == null ? null : range.get(job.getId().min());
+        Long max = range == null ? null : range.get(job.getId().max());
+        if (min == null || max == null) {
+            return;
+        }
+
+        // 구간 끝은 포함 > 마지막 파티션이 나머지를 가져간다.
+        long width = Math.max(1, (max - min + 1) / job.getPartitions());
+        int partitionNo = checkpoints.size();
+        for (int partition = 0; partition < job.getPartitions(); partition++) {
+            long start = min + width * partition;
+            if (start > max) {
+                break;
+            }
+            long end = partition == job.getPartitions() - 1 ? max : Math.min(max, start + width - 1);
+            BatchCheckpoint checkpoint = new BatchCheckpoint(job.getName(), partitionNo++, start, end);
+            entityManager.persist(checkpoint);
+            checkpoints.add(checkpoint);
+        }
+    }
+
+    /**
+     * 샤드에 저장되는 엔티티(회원/팀)의 잡이고 샤딩이 켜져 있으면 ShardRegistry, 아니면 null
+     */
+    private <T> ShardRegistry shardsOf(ChunkJob<T> job) {
+        Class<?> type = job.getEntity().getType();
+        return type == Member.class || type == Team.class ? shardRegistry.getIfAvailable() : null;
+    }
+
+    private <T> List<long[]> runSequential(ChunkJob<T> job, ShardRegistry shards, List<BatchCheckpoint> checkpoints) {
+        List<long[]> results = new ArrayList<>();
+        for (BatchCheckpoint checkpoint : checkpoints) {
+            results.add(runPartition(job, shards, checkpoint));
+        }
+        return results;
+    }
+
+    /**
+     * 파티션마다 스레드 하나 > 실패한 파티션이 있어도 나머지는 끝까지 처리하고, 첫 실패를 던진다.
+     */
+    private <T> List<long[]> runParallel(ChunkJob<T> job, ShardRegistry shards, List<BatchCheckpoint> checkpoints) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(checkpoints.size(), runnable -> {
+            Thread thread = new Thread(runnable, "batch-" + job.getName() + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (BatchCheckpoint checkpoint : checkpoints) {
+                futures.add(executor.submit(() -> runPartition(job, shards, checkpoint)));
+            }
+
+            List<long[]> results = new ArrayList<>();
+            RuntimeException failure = null;
+            for (Future<long[]> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException
+                                ? (RuntimeException) e.getCause()
+                                : new IllegalStateException("배치 파티션이 실패했습니다. job = " + job.getName(), e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("배치 잡이 중단되었습니다. job = " + job.getName(), e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return {처리 건수, 청크 수}
+     */
+    private <T> long[] runPartition(ChunkJob<T> job, ShardRegistry shards, BatchCheckpoint start) {
+        BatchCheckpoint.BatchCheckpointId checkpointId = new BatchCheckpoint.BatchCheckpointId(start.getJobName(), start.getPartitionNo());
+        Shard shard = shards == null ? null : shards.get(Shard.indexOf(start.getRangeStart()));
+        long rangeEnd = start.getRangeEnd();
+        long[] lastId = {start.getLastId()};
+        long[] result = new long[2];
+
+        int size;
+        do {
+            size = transactionTemplate.execute(status -> {
+                long[] chunk = shard == null
+                        ? processChunk(job, entityManager, lastId[0], rangeEnd)
+                        : shard.write(shardEntityManager -> {
+                            long[] shardChunk = processChunk(job, shardEntityManager, lastId[0], rangeEnd);
+                            shardEntityManager.flush();
+                            shardEntityManager.clear();
+                            return shardChunk;
+                        });
+
+                BatchCheckpoint checkpoint = entityManager.find(BatchCheckpoint.class, checkpointId);
+                if (chunk[0] > 0) {
+                    checkpoint.advance(chunk[1], (int) chunk[0]);
+                    lastId[0] = chunk[1];
+                }
+                if (chunk[0] < job.getChunkSize()) {
+                    checkpoint.complete();
+                }
+
+                entityManager.flush();
+                entityManager.clear();
+                return (int) chunk[0];
+            });
+
+            // 커밋된 청크만 센다.
+            if (size > 0) {
+                result[0] += size;
+                result[1]++;
+                meterRegistry.counter("batch.job.items", "job", job.getName()).increment(size);
+                meterRegistry.counter("batch.job.chunks", "job", job.getName()).increment();
+                if (shard != null) {
+                    // 샤드에는 TableVersionEventListener 가 붙지 않는다.
+                    tableVersions.bump(job.getEntity().getType() == Team.class ? TableVersions.TEAM : TableVersions.MEMBER);
+                }
+            }
+        } while (size == job.getChunkSize());
+        return result;
+    }
+
+    /**
+     * id > lastId 인 엔티티를 chunkSize 개 읽어 processor 에 넘긴다.
+     *
+     * @return {청크 크기, 청크의 마지막 ID}
+     */
+    private <T> long[] processChunk(ChunkJob<T> job, EntityManager chunkEntityManager, long lastId, long rangeEnd) {
+        List<T> chunk = new JPAQueryFactory(chunkEntityManager)
+                .selectFrom(job.getEntity())
+                .where(
+                        job.getWhere(),
+                        job.getId().gt(lastId),
+                        job.getId().loe(rangeEnd)
+                )
+                .orderBy(job.getId().asc())
+                .limit(job.getChunkSize())
+                .fetch();
+        if (chunk.isEmpty()) {
+            return new long[]{0, lastId};
+        }
+
+        // processor 가 지울 수도 있으므로 처리 전에 마지막 ID 를 읽어 둔다.
+        Long chunkLastId = (Long) chunkEntityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+                .getIdentifier(chunk.get(chunk.size() - 1));
+        job.getProcessor().process(chunk);
+        return new long[]{chunk.size(), chunkLastId};
+    }
+
+}
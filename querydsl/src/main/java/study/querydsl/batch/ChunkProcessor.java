@@ -0,0 +1,15 @@
+package study.querydsl.batch;
+
+import java.util.List;
+
+/**
+ * 청크 하나를 처리한다. 청크의 엔티티는 영속 상태이므로 값을 바꾸면 청크 커밋 때 JDBC 배치로 반영된다.
+ *
+ * 예외를 던지면 청크 트랜잭션이 롤백되고 잡이 멈춘다. (체크포인트는 직전 청크에 남는다)
+ */
+@FunctionalInterface
+public interface ChunkProcessor<T> {
+
+    void process(List<T> chunk);
+
+}
@@ -0,0 +1,32 @@
+package study.querydsl.config;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.querydsl.monitor.HibernateStatisticsFilter;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 전역 Hibernate Statistics 는 hibernate.generate_statistics 설정으로 켜지고
+ * Actuator(/actuator/metrics/hibernate.*) 로 노출된다.
+ *
+ * 여기서는 회원 조회 API 의 요청 단위 증감량 기록 필터만 등록한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "querydsl.statistics.per-request", havingValue = "true")
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public FilterRegistrationBean<HibernateStatisticsFilter> hibernateStatisticsFilter(EntityManagerFactory entityManagerFactory) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        FilterRegistrationBean<HibernateStatisticsFilter> registrationBean =
+                new FilterRegistrationBean<>(new HibernateStatisticsFilter(sessionFactory.getStatistics()));
+        registrationBean.addUrlPatterns("/v1/members", "/v2/members", "/v3/members", "/v4/members");
+        return registrationBean;
+    }
+
+}
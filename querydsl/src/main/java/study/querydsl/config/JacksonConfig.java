@@ -0,0 +1,84 @@
+package study.querydsl.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Module 빈은 스프링 부트가 ObjectMapper 에 등록한다.
+ *
+ * Afterburner : 리플렉션 대신 바이트코드로 getter/setter 를 호출한다. (Java 8 에서는 Blackbird 대신 Afterburner)
+ *
+ * 내부 서비스 호출용 바이너리 응답 > Accept 헤더로 고른다.
+ *  - application/cbor
+ *  - application/x-jackson-smile : 반복되는 필드 이름/짧은 문자열 값을 앞의 것을 가리키는 참조로 쓴다.
+ *
+ * jackson-dataformat-smile/cbor 가 클래스패스에 있으면 스프링 MVC 가 기본 Smile/CBOR 컨버터를 이미 등록한다.
+ * > 쓸 수 있는 첫 번째 컨버터가 응답하므로 뒤에 붙이면 안 되고 기본 컨버터를 같은 자리에서 바꾼다.
+ * > 기본 목록에서 JSON 컨버터가 앞에 있으므로 Accept: *&#47;* 요청은 지금처럼 JSON 으로 응답한다.
+ * Jackson2ObjectMapperBuilder 는 부트 설정(Module, JsonComponent 등)이 적용된 프로토타입 빈이다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class JacksonConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Bean
+    public Module afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2CborHttpMessageConverter.class, new MappingJackson2CborHttpMessageConverter(cborObjectMapper()));
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class, new MappingJackson2SmileHttpMessageConverter(smileObjectMapper()));
+    }
+
+    /**
+     * 같은 종류의 컨버터를 모두 빼고 첫 번째 자리에 넣는다. (없으면 맨 뒤)
+     */
+    private void replace(List<HttpMessageConverter<?>> converters,
+                         Class<? extends HttpMessageConverter<?>> converterType,
+                         HttpMessageConverter<?> replacement) {
+        int index = -1;
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (converterType.isInstance(converters.get(i))) {
+                converters.remove(i);
+                index = i;
+            }
+        }
+        converters.add(index < 0 ? converters.size() : index, replacement);
+    }
+
+    private ObjectMapper cborObjectMapper() {
+        return objectMapperBuilder.getObject()
+                .factory(new CBORFactory())
+                .build();
+    }
+
+    private ObjectMapper smileObjectMapper() {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return objectMapperBuilder.getObject()
+                .factory(smileFactory)
+                .build();
+    }
+
+}
@@ -0,0 +1,28 @@
+package study.querydsl.config;
+
+import com.querydsl.sql.H2Templates;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * querydsl-sql > JPQL 번역, 영속성 컨텍스트 없이 SQL 결과를 바로 DTO 로 만든다.
+ *
+ * SpringConnectionProvider 는 스프링 트랜잭션에 묶인 커넥션만 돌려준다. (트랜잭션 밖에서 쓰면 예외)
+ * > JpaTransactionManager 가 같은 커넥션을 DataSource 에 묶어 두므로 JPA 와 같은 트랜잭션에서 실행된다.
+ */
+@Configuration
+public class QuerydslSqlConfig {
+
+    @Bean
+    public SQLQueryFactory sqlQueryFactory(DataSource dataSource) {
+        com.querydsl.sql.Configuration configuration = new com.querydsl.sql.Configuration(H2Templates.builder().build());
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+        return new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource));
+    }
+
+}
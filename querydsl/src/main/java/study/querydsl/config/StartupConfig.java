@@ -0,0 +1,44 @@
+package study.querydsl.config;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import study.querydsl.InitMember;
+import study.querydsl.event.HibernateEventListenerConfig;
+import study.querydsl.event.MemberTeamViewEventListener;
+import study.querydsl.event.MemberTrigramEventListener;
+import study.querydsl.event.TeamStatsEventListener;
+import study.querydsl.event.TeamStatsReconciler;
+import study.querydsl.repository.MemberJpaRepository;
+import study.querydsl.repository.MemberRepository;
+
+/**
+ * startup 프로필 (spring.main.lazy-initialization: true)
+ *
+ * 지연 초기화에서 제외할 빈
+ *  1. 첫 요청에서 바로 쓰이는 빈 (MemberController 가 쓰는 리포지토리, JPAQueryFactory)
+ *     > 이 빈들이 EntityManagerFactory(하이버네이트 메타모델)까지 미리 만들어 둔다.
+ *  2. 생성 시점에 동작해야 하는 빈 (InitMember 의 @PostConstruct, 하이버네이트 리스너 등록, @Scheduled)
+ */
+@Profile(StartupProfilingListener.PROFILE)
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                JPAQueryFactory.class,
+                MemberJpaRepository.class,
+                MemberRepository.class,
+                InitMember.class,
+                HibernateEventListenerConfig.class,
+                MemberTeamViewEventListener.class,
+                MemberTrigramEventListener.class,
+                TeamStatsEventListener.class,
+                TeamStatsReconciler.class
+        );
+    }
+
+}
@@ -0,0 +1,28 @@
+package study.querydsl.config;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Profiles;
+
+/**
+ * startup 프로필이면 기동 타임라인(StartupStep)을 메모리에 쌓아서 /actuator/startup 으로 노출한다.
+ *
+ * ApplicationStartup 은 컨텍스트가 만들어지기 전에 정해야 하므로 빈이 아닌
+ * spring.factories 에 등록한 리스너에서 Environment 가 준비된 시점에 설정한다.
+ */
+public class StartupProfilingListener implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+    public static final String PROFILE = "startup";
+    private static final int CAPACITY = 4096;
+
+    @Override
+    public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+        if (event.getEnvironment().acceptsProfiles(Profiles.of(PROFILE))) {
+            SpringApplication springApplication = event.getSpringApplication();
+            springApplication.setApplicationStartup(new BufferingApplicationStartup(CAPACITY));
+        }
+    }
+
+}
@@ -2,16 +2,47 @@ package study.querydsl.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberCreateRequest;
+import study.querydsl.entity.dto.MemberExportManifest;
+import study.querydsl.entity.dto.MemberImportResult;
 import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.PageResponse;
+import study.querydsl.event.TableVersions;
 import study.querydsl.repository.MemberJpaRepository;
 import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberRepositoryCustom;
+import study.querydsl.repository.MemberSearchSource;
+import study.querydsl.repository.MemberSqlRepository;
+import study.querydsl.repository.MemberTeamViewRepository;
+import study.querydsl.repository.ShardedMemberRepository;
+import study.querydsl.service.MemberExportService;
+import study.querydsl.service.MemberImportService;
+import study.querydsl.service.MemberIngestionQueue;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.springframework.util.StringUtils.hasText;
 
 @Slf4j
 @RestController
@@ -22,23 +53,146 @@ public class MemberController {
 
     private final MemberRepository memberRepository;
 
+    private final MemberTeamViewRepository memberTeamViewRepository;
+
+    private final MemberSqlRepository memberSqlRepository;
+
+    private final MemberSearchSource memberSearchSource;
+
+    private final ObjectProvider<ShardedMemberRepository> shardedMemberRepository; // querydsl.shard.enabled 일 때만 있다.
+
+    private final TableVersions tableVersions;
+
+    private final MemberIngestionQueue memberIngestionQueue;
+
+    private final MemberImportService memberImportService;
+
+    private final MemberExportService memberExportService;
+
     /**
      * http://localhost:8080/v1/members?teamName=teamB&ageGoe=31&ageLoe=35&username=member31
+     *
+     * 검색 대상(조인 / member_team_view / querydsl-sql / 샤드)은 querydsl.search-source.endpoints 로 엔드포인트마다 고른다.
      */
     @GetMapping("/v1/members")
     public List<MemberTeamDto> searchMemberV1(MemberSearchCondition memberSearchCondition) {
         //System.out.println("memberSearchCondition = " + memberSearchCondition);
-        return memberJpaRepository.search(memberSearchCondition);
+        switch (memberSearchSource.getSource("v1")) {
+            case VIEW:
+                return memberTeamViewRepository.search(memberSearchCondition);
+            case SQL:
+                return memberSqlRepository.search(memberSearchCondition);
+            case SHARD:
+                return shardedMemberRepository.getObject().search(memberSearchCondition);
+            default:
+                return memberJpaRepository.search(memberSearchCondition);
+        }
     }
 
+    /**
+     * If-None-Match 가 현재 ETag 와 같으면 조회하지 않고 304 로 응답한다.
+     */
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition memberSearchCondition, Pageable pageable) {
-        return memberRepository.searchSimple(memberSearchCondition, pageable);
+    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition memberSearchCondition, Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(searchETag("v2", webRequest))) {
+            return null;
+        }
+        return searchRepository("v2").searchSimple(memberSearchCondition, pageable);
     }
 
     @GetMapping("/v3/members")
-    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition memberSearchCondition, Pageable pageable) {
-        return memberRepository.searchComplex(memberSearchCondition, pageable);
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition memberSearchCondition, Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(searchETag("v3", webRequest))) {
+            return null;
+        }
+        return searchRepository("v3").searchComplex(memberSearchCondition, pageable);
+    }
+
+    /**
+     * v3 와 같은 검색을 간결한 페이지 응답(PageResponse)으로 내보낸다.
+     */
+    @GetMapping("/v4/members")
+    public PageResponse<MemberTeamDto> searchMemberV4(MemberSearchCondition memberSearchCondition, Pageable pageable, WebRequest webRequest) {
+        if (webRequest.checkNotModified(searchETag("v4", webRequest))) {
+            return null;
+        }
+        return PageResponse.of(searchRepository("v4").searchComplex(memberSearchCondition, pageable));
+    }
+
+    /**
+     * 회원 생성 > 큐에 넣고 바로 202 로 응답한다. (저장은 MemberIngestionQueue 가 모아서 한다)
+     *  - 큐가 가득 차면 429 (Retry-After 1초)
+     *  - 종료 중이면 503
+     */
+    @PostMapping("/members")
+    public ResponseEntity<Void> createMember(@RequestBody MemberCreateRequest memberCreateRequest) {
+        if (!hasText(memberCreateRequest.getUsername())) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!memberIngestionQueue.isRunning()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        if (!memberIngestionQueue.offer(memberCreateRequest)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * 회원 JSON 파일 적재 > 바디를 스트림으로 읽는다.
+     *
+     * curl -X POST -H 'Content-Type: application/json' --data-binary @members.json http://localhost:8080/members/import
+     */
+    @PostMapping(value = "/members/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public MemberImportResult importMembers(InputStream body) throws IOException {
+        return memberImportService.importMembers(body);
+    }
+
+    /**
+     * 회원 전체 내보내기 > 파티션마다 gzip 파일 하나와 manifest.json (querydsl.export.directory 아래)
+     *
+     * curl -X POST 'http://localhost:8080/members/export?partitions=4&format=CSV'
+     */
+    @PostMapping("/members/export")
+    public MemberExportManifest exportMembers(@RequestParam(required = false) Integer partitions,
+                                              @RequestParam(required = false) MemberExportService.Format format) {
+        return memberExportService.export(partitions, format);
+    }
+
+    private MemberRepositoryCustom searchRepository(String endpoint) {
+        switch (memberSearchSource.getSource(endpoint)) {
+            case VIEW:
+                return memberTeamViewRepository;
+            case SQL:
+                return memberSqlRepository;
+            case SHARD:
+                return shardedMemberRepository.getObject();
+            default:
+                return memberRepository;
+        }
+    }
+
+    /**
+     * ETag = 회원/팀 테이블 버전 + 엔드포인트 + Accept + 정렬한 요청 파라미터
+     * > 파라미터 순서만 다른 요청은 같은 ETag 를 받는다.
+     *
+     * 버전을 조회 전에 읽으므로 조회 중에 커밋된 변경은 다음 요청에서 새 ETag 로 드러난다.
+     */
+    private String searchETag(String endpoint, WebRequest webRequest) {
+        StringBuilder key = new StringBuilder()
+                .append(tableVersions.getEpoch())
+                .append('|').append(tableVersions.get(TableVersions.MEMBER))
+                .append('|').append(tableVersions.get(TableVersions.TEAM))
+                .append('|').append(endpoint)
+                .append('|').append(memberSearchSource.getSource(endpoint))
+                .append('|').append(webRequest.getHeader(HttpHeaders.ACCEPT)); // JSON / CBOR / Smile 응답은 서로 다르다.
+
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(webRequest.getParameterMap()).entrySet()) {
+            key.append('|').append(parameter.getKey()).append('=').append(Arrays.toString(parameter.getValue()));
+        }
+        return DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8));
     }
 
 }
@@ -0,0 +1,36 @@
+package study.querydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.querydsl.entity.dto.TeamRosterDto;
+import study.querydsl.entity.dto.TeamStatsDto;
+import study.querydsl.repository.TeamRosterRepository;
+import study.querydsl.repository.TeamStatsRepository;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamStatsRepository teamStatsRepository;
+    private final TeamRosterRepository teamRosterRepository;
+
+    /**
+     * http://localhost:8080/teams/stats
+     */
+    @GetMapping("/teams/stats")
+    public List<TeamStatsDto> teamStats() {
+        return teamStatsRepository.findAll();
+    }
+
+    /**
+     * http://localhost:8080/teams/roster
+     */
+    @GetMapping("/teams/roster")
+    public List<TeamRosterDto> teamRoster() {
+        return teamRosterRepository.findAll();
+    }
+
+}
@@ -0,0 +1,90 @@
+package study.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 청크 배치 잡의 진행 위치 (잡 이름 + 파티션)
+ *
+ * 파티션은 ID 구간 [rangeStart, rangeEnd] 을 맡고, lastId 까지 처리했다.
+ * 청크와 같은 트랜잭션으로 커밋되므로 실패한 잡은 마지막으로 커밋된 청크 다음부터 다시 시작한다.
+ */
+@Getter
+@Entity
+@IdClass(BatchCheckpoint.BatchCheckpointId.class)
+@Table(name = "batch_checkpoint")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class BatchCheckpoint {
+
+    @Id
+    @Column(name = "job_name", length = 100)
+    private String jobName;
+
+    @Id
+    @Column(name = "partition_no")
+    private int partitionNo;
+
+    private long rangeStart;
+    private long rangeEnd;
+    private long lastId;
+    private long processed;
+    private boolean completed;
+    private LocalDateTime updatedAt;
+
+    public BatchCheckpoint(String jobName, int partitionNo, long rangeStart, long rangeEnd) {
+        this.jobName = jobName;
+        this.partitionNo = partitionNo;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.lastId = rangeStart - 1;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void advance(long lastId, int count) {
+        this.lastId = lastId;
+        this.processed += count;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public void complete() {
+        this.completed = true;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchCheckpoint{" +
+                "jobName='" + jobName + '\'' +
+                ", partitionNo=" + partitionNo +
+                ", range=[" + rangeStart + ", " + rangeEnd + "]" +
+                ", lastId=" + lastId +
+                ", processed=" + processed +
+                ", completed=" + completed +
+                '}';
+    }
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class BatchCheckpointId implements Serializable {
+
+        private String jobName;
+        private int partitionNo;
+
+        public BatchCheckpointId(String jobName, int partitionNo) {
+            this.jobName = jobName;
+            this.partitionNo = partitionNo;
+        }
+
+    }
+
+}
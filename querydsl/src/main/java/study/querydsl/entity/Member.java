@@ -1,13 +1,26 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import study.querydsl.event.MemberUniqueUsernameListener;
 
 import javax.persistence.*;
+import java.util.Locale;
 
 @Getter
 @Setter
 @Entity
+@EntityListeners(MemberUniqueUsernameListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // 2차 캐시는 unique-username 모드에서만 켜진다.
+@NaturalIdCache
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), // 회원 적재(MERGE ... ON username)
+        @Index(name = "idx_member_username_lower", columnList = "username_lower")
+})
 public class Member {
 
     @Id
@@ -18,6 +31,33 @@ public class Member {
     private String username;
     private int age;
 
+    /**
+     * 낙관적 락 > 동시에 수정하면 나중에 커밋하는 쪽이 OptimisticLockException 으로 실패한다.
+     * 재시도는 OptimisticRetryTemplate 을 쓴다.
+     */
+    @Version
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * 대소문자 무시 검색용 정규화 컬럼 > username.lower() 로 검색하면 인덱스를 못 탄다.
+     * 엔티티 콜백이 username 에 맞춰 채우므로 직접 바꾸지 않는다.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "username_lower")
+    private String usernameLower;
+
+    /**
+     * unique-username 모드의 자연 키 > 모드가 켜져 있으면 username 과 같고, 꺼져 있으면 null 이다.
+     * username 은 중복을 허용하므로 유니크 제약은 이 컬럼에 건다. (null 은 중복으로 보지 않는다)
+     * 엔티티 리스너(MemberUniqueUsernameListener)가 채우므로 직접 바꾸지 않는다.
+     */
+    @NaturalId(mutable = true)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "unique_username")
+    private String uniqueUsername;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "team_id")
     @ToString.Exclude
@@ -40,6 +80,23 @@ public class Member {
         }
     }
 
+    public static String normalizeUsername(String username) {
+        return username == null ? null : username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * StatelessSession 은 엔티티 콜백을 부르지 않으므로 insert 전에 직접 부른다.
+     */
+    @PrePersist
+    @PreUpdate
+    public void syncUsernameLower() {
+        this.usernameLower = normalizeUsername(username);
+    }
+
+    public void syncUniqueUsername(boolean enabled) {
+        this.uniqueUsername = enabled ? username : null;
+    }
+
     private void changeTeam(Team team) {
         this.team = team;
         team.addMember(this);
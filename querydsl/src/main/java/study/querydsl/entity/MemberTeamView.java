@@ -0,0 +1,60 @@
+package study.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * 회원 + 팀명 (읽기 모델)
+ *
+ * 회원 검색이 member 와 team 을 조인하지 않고 테이블 하나에서 인덱스로 끝나도록 팀명을 함께 담아둔다.
+ * 회원/팀 변경 시 MemberTeamViewEventListener 가 flush 마다 고치고, 벌크 연산 이후에는 member 테이블 기준으로 다시 만든다.
+ * > 애플리케이션에서는 읽기만 한다.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "member_team_view", indexes = {
+        @Index(name = "idx_member_team_view_username", columnList = "username"),
+        @Index(name = "idx_member_team_view_username_lower", columnList = "username_lower"),
+        @Index(name = "idx_member_team_view_team_name_age", columnList = "team_name, age"),
+        @Index(name = "idx_member_team_view_age", columnList = "age")
+})
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MemberTeamView {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String username;
+
+    @Column(name = "username_lower")
+    private String usernameLower;
+
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+
+    @Override
+    public String toString() {
+        return "MemberTeamView{" +
+                "memberId=" + memberId +
+                ", username='" + username + '\'' +
+                ", age=" + age +
+                ", teamId=" + teamId +
+                ", teamName='" + teamName + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,53 @@
+package study.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * 회원명 부분 검색용 트라이그램 색인 (trigram > member_id 포스팅)
+ *
+ * 회원 저장/변경/삭제(flush 마다)와 벌크 연산 모두 MemberTrigramEventListener 가 반영한다.
+ */
+@Getter
+@Entity
+@Immutable
+@IdClass(MemberTrigram.MemberTrigramId.class)
+@Table(
+        name = "member_trigram",
+        indexes = {
+                @Index(name = "idx_member_trigram_trigram", columnList = "trigram, member_id"),
+                @Index(name = "idx_member_trigram_member", columnList = "member_id")
+        }
+)
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class MemberTrigram {
+
+    @Id
+    @Column(length = 3)
+    private String trigram;
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    @EqualsAndHashCode
+    @NoArgsConstructor
+    public static class MemberTrigramId implements Serializable {
+
+        private String trigram;
+        private Long memberId;
+
+    }
+
+}
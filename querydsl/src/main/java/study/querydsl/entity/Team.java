@@ -1,6 +1,7 @@
 package study.querydsl.entity;
 
 import lombok.*;
+import org.hibernate.annotations.OptimisticLock;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -20,15 +21,26 @@ public class Team {
 
     private String name;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    @Column(nullable = false)
+    private Long version;
+
+    /**
+     * 회원이 팀에 들어오고 나가는 것으로 팀 버전을 올리지 않는다. (팀 행이 핫스팟이 된다)
+     * 새 팀만 빈 목록으로 만든다. > 하이버네이트가 기본 생성자로 읽어 올 때는 곧바로 지연 컬렉션으로 바꾸므로 만들지 않는다.
+     */
     @OneToMany(mappedBy = "team")
+    @OptimisticLock(excluded = true)
     @ToString.Exclude
-    private List<Member> members = new ArrayList<>();
+    private List<Member> members;
 
     @Transient
     private final ReentrantLock memberLock = new ReentrantLock();
 
     public Team(String name) {
         this.name = name;
+        this.members = new ArrayList<>();
     }
 
     public void addMember(Member member) {
@@ -0,0 +1,46 @@
+package study.querydsl.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * 팀별 회원 통계 (읽기 모델)
+ *
+ * 회원 변경 시 TeamStatsEventListener 가 flush 마다 증감분(회원 수, 나이 합)만 더하고,
+ * 벌크 연산 이후와 주기적으로 TeamStatsReconciler 가 member 테이블 기준으로 전체를 다시 맞춘다.
+ * > 애플리케이션에서는 읽기만 한다.
+ */
+@Getter
+@Entity
+@Immutable
+@Table(name = "team_stats")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class TeamStats {
+
+    @Id
+    @Column(name = "team_id")
+    private Long teamId;
+
+    private long memberCount;
+    private long ageSum;
+    private Integer minAge;
+    private Integer maxAge;
+
+    @Override
+    public String toString() {
+        return "TeamStats{" +
+                "teamId=" + teamId +
+                ", memberCount=" + memberCount +
+                ", ageSum=" + ageSum +
+                ", minAge=" + minAge +
+                ", maxAge=" + maxAge +
+                '}';
+    }
+}
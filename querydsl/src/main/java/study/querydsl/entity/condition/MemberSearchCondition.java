@@ -1,6 +1,10 @@
 package study.querydsl.entity.condition;
 
 import lombok.Data;
+import study.querydsl.entity.Member;
+
+import java.util.List;
+import java.util.stream.Collectors;
 
 @Data
 public class MemberSearchCondition {
@@ -8,8 +12,39 @@ public class MemberSearchCondition {
     // 회원명, 팀명, 나이(ageGoe, ageLoe)
 
     private String username;
+    private String usernameContains; // 회원명 부분 검색 (트라이그램 색인)
+    private boolean ignoreCase; // username, usernameContains 대소문자 무시 (username_lower 컬럼)
+    private List<String> usernames; // 회원명 목록 (IN)
     private String teamName;
+    private List<String> teamNames; // 팀명 목록 (IN)
     private Integer ageGoe;
     private Integer ageLoe;
 
+    /**
+     * IN 조건에 실제로 들어갈 회원명 목록 > ignoreCase 면 소문자로 맞춘 값
+     * 중복 제거/청크 나누기 전에 맞춰야 "Alice" 와 "alice" 가 다른 청크에서 같은 행을 두 번 찾지 않는다.
+     */
+    public List<String> normalizedUsernames() {
+        if (!ignoreCase || usernames == null) {
+            return usernames;
+        }
+        return usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList());
+    }
+
+    /**
+     * IN 목록만 바꾼 복사본 (청크 단위 조회)
+     */
+    public MemberSearchCondition withInLists(List<String> usernames, List<String> teamNames) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setUsernameContains(usernameContains);
+        condition.setIgnoreCase(ignoreCase);
+        condition.setUsernames(usernames);
+        condition.setTeamName(teamName);
+        condition.setTeamNames(teamNames);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition;
+    }
+
 }
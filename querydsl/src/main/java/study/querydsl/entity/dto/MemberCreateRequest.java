@@ -0,0 +1,19 @@
+package study.querydsl.entity.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * POST /members 요청 바디
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class MemberCreateRequest {
+
+    private String username;
+    private int age;
+    private Long teamId; // 팀 없이 만들려면 null
+
+}
@@ -0,0 +1,44 @@
+package study.querydsl.entity.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 회원 내보내기 결과 > 내보낸 디렉토리에 manifest.json 으로도 남긴다.
+ *
+ * 파티션 파일을 모두 이어 붙이면 member_id 순서의 전체 회원이 된다. (files 는 파티션 순서)
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class MemberExportManifest {
+
+    private final String exportId;
+    private final String format;        // csv | ndjson
+    private final String compression;   // gzip
+    private final LocalDateTime createdAt;
+    private final long rows;
+    private final long elapsedMs;
+    private final double rowsPerSecond;
+    private final List<PartitionFile> files;
+
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class PartitionFile {
+
+        private final int partitionNo;
+        private final String file;
+        private final long fromId;  // 포함
+        private final long toId;    // 포함
+        private final long rows;
+        private final long bytes;   // 압축 후 크기
+        private final long elapsedMs;
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package study.querydsl.entity.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * POST /members/import 응답 > 처리량과 건너뛴 행
+ */
+@Getter
+@ToString
+public class MemberImportResult {
+
+    private static final int MAX_ERRORS = 100;
+
+    private long read;      // 읽은 행
+    private long written;   // 저장(insert/update)한 행
+    private long skipped;   // 형식이 잘못되어 건너뛴 행
+    private long failed;    // 저장하다 실패한 행
+    private long teamsCreated;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private boolean aborted; // JSON 자체가 깨져서 중간에 멈췄는지
+
+    private final List<String> errors = new ArrayList<>(); // 앞쪽 MAX_ERRORS 개만
+
+    public void read() {
+        read++;
+    }
+
+    public void written(long count) {
+        written += count;
+    }
+
+    public void teamCreated() {
+        teamsCreated++;
+    }
+
+    public void skip(long row, String reason) {
+        skipped++;
+        error(row, reason);
+    }
+
+    public void fail(long row, String reason) {
+        failed++;
+        error(row, reason);
+    }
+
+    public void abort(String reason) {
+        aborted = true;
+        error(read, reason);
+    }
+
+    public void finish(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+        this.rowsPerSecond = elapsedMs == 0 ? written : written * 1000.0 / elapsedMs;
+    }
+
+    private void error(long row, String reason) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add("row " + row + " : " + reason);
+        }
+    }
+
+}
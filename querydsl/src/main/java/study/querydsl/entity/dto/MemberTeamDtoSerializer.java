@@ -0,0 +1,57 @@
+package study.querydsl.entity.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * MemberTeamDto 직렬화 > 회원 검색 응답에서 가장 많이 직렬화되는 타입
+ *
+ * 빈 직렬화(BeanSerializer)와 같은 JSON 을 내보내되, 속성 탐색/리플렉션 없이 필드를 바로 쓴다.
+ * 필드 이름은 미리 인코딩해둔다. (SerializedString)
+ */
+@JsonComponent
+public class MemberTeamDtoSerializer extends StdSerializer<MemberTeamDto> {
+
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberTeamDtoSerializer() {
+        super(MemberTeamDto.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamDto value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(value);
+
+        generator.writeFieldName(MEMBER_ID);
+        writeLong(generator, value.getMemberId());
+        generator.writeFieldName(USERNAME);
+        generator.writeString(value.getUsername());
+        generator.writeFieldName(AGE);
+        generator.writeNumber(value.getAge());
+        generator.writeFieldName(TEAM_ID);
+        writeLong(generator, value.getTeamId());
+        generator.writeFieldName(TEAM_NAME);
+        generator.writeString(value.getTeamName());
+
+        generator.writeEndObject();
+    }
+
+    private void writeLong(JsonGenerator generator, Long value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package study.querydsl.entity.dto;
+
+import lombok.Getter;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * 페이지 응답 (PageImpl 직렬화 대신)
+ *
+ * PageImpl 은 pageable, sort, first/last/empty 등 매번 같은 값을 반복해서 내보낸다.
+ * 클라이언트가 쓰는 값(내용, 페이지 번호/크기, 전체 개수, 다음 페이지 여부)만 담는다.
+ */
+@Getter
+public class PageResponse<T> {
+
+    private final List<T> content;
+    private final int page;
+    private final int size;
+    private final long total;
+    private final boolean hasNext;
+
+    private PageResponse(List<T> content, int page, int size, long total, boolean hasNext) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.total = total;
+        this.hasNext = hasNext;
+    }
+
+    public static <T> PageResponse<T> of(Page<T> page) {
+        return new PageResponse<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.hasNext());
+    }
+
+}
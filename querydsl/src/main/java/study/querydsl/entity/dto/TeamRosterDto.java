@@ -0,0 +1,33 @@
+package study.querydsl.entity.dto;
+
+import com.querydsl.core.annotations.QueryProjection;
+import lombok.Data;
+import study.querydsl.repository.support.AggregateFunctions;
+
+import java.util.List;
+
+@Data
+public class TeamRosterDto {
+
+    private Long teamId;
+    private String teamName;
+
+    private long memberCount;
+    private List<String> usernames;
+
+    public TeamRosterDto(Long teamId, String teamName, long memberCount, List<String> usernames) {
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.memberCount = memberCount;
+        this.usernames = usernames;
+    }
+
+    /**
+     * usernames : listagg 로 모은 회원명 (AggregateFunctions)
+     */
+    @QueryProjection
+    public TeamRosterDto(Long teamId, String teamName, long memberCount, String usernames) {
+        this(teamId, teamName, memberCount, AggregateFunctions.split(usernames));
+    }
+
+}
@@ -0,0 +1,51 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 빈으로 등록된 하이버네이트 이벤트 리스너를 SessionFactory 에 붙인다.
+ * > 기본 리스너 뒤에 붙으므로 flush 리스너는 flush(JDBC 배치 실행 포함)가 끝난 뒤에 불린다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class HibernateEventListenerConfig {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<PostInsertEventListener> postInsertEventListeners;
+    private final ObjectProvider<PostUpdateEventListener> postUpdateEventListeners;
+    private final ObjectProvider<PostDeleteEventListener> postDeleteEventListeners;
+    private final ObjectProvider<FlushEventListener> flushEventListeners;
+    private final ObjectProvider<AutoFlushEventListener> autoFlushEventListeners;
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        postInsertEventListeners.orderedStream()
+                .forEach(listener -> eventListenerRegistry.appendListeners(EventType.POST_INSERT, listener));
+        postUpdateEventListeners.orderedStream()
+                .forEach(listener -> eventListenerRegistry.appendListeners(EventType.POST_UPDATE, listener));
+        postDeleteEventListeners.orderedStream()
+                .forEach(listener -> eventListenerRegistry.appendListeners(EventType.POST_DELETE, listener));
+        flushEventListeners.orderedStream()
+                .forEach(listener -> eventListenerRegistry.appendListeners(EventType.FLUSH, listener));
+        autoFlushEventListeners.orderedStream()
+                .forEach(listener -> eventListenerRegistry.appendListeners(EventType.AUTO_FLUSH, listener));
+    }
+
+}
@@ -0,0 +1,65 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 엔티티 리스너를 거치지 않는 회원 변경 (벌크 JPQL, JDBC) 이후에 발행한다.
+ *
+ * 이벤트는 변경을 일으킨 트랜잭션 안에서 동기로 처리되므로
+ * 읽기 모델도 같은 트랜잭션으로 함께 커밋/롤백 된다.
+ */
+@Getter
+public class MemberBulkChangedEvent {
+
+    /**
+     * 변경된 회원 ID, null 이면 어떤 회원이 바뀌었는지 모른다(전체 대상).
+     */
+    private final Collection<Long> memberIds;
+
+    /**
+     * 변경 전후로 회원이 속한 팀 ID, null 이면 어떤 팀이 바뀌었는지 모른다(전체 대상).
+     */
+    private final Collection<Long> teamIds;
+
+    /**
+     * false 면 username 은 그대로다. > username 에서 파생된 값(username_lower, unique_username, member_trigram)은 다시 맞추지 않는다.
+     */
+    private final boolean usernameChanged;
+
+    private MemberBulkChangedEvent(Collection<Long> memberIds, Collection<Long> teamIds, boolean usernameChanged) {
+        this.memberIds = memberIds;
+        this.teamIds = teamIds;
+        this.usernameChanged = usernameChanged;
+    }
+
+    public static MemberBulkChangedEvent all() {
+        return new MemberBulkChangedEvent(null, null, true);
+    }
+
+    /**
+     * 모든 회원의 나이만 바꿨다. (팀, username 은 그대로)
+     */
+    public static MemberBulkChangedEvent allAges() {
+        return new MemberBulkChangedEvent(null, null, false);
+    }
+
+    public static MemberBulkChangedEvent of(Collection<Long> memberIds) {
+        return new MemberBulkChangedEvent(Collections.unmodifiableCollection(memberIds), null, true);
+    }
+
+    public static MemberBulkChangedEvent of(Collection<Long> memberIds, Collection<Long> teamIds) {
+        return new MemberBulkChangedEvent(Collections.unmodifiableCollection(memberIds), Collections.unmodifiableCollection(teamIds), true);
+    }
+
+    public boolean isAll() {
+        return memberIds == null;
+    }
+
+    public boolean isAllTeams() {
+        return teamIds == null;
+    }
+
+}
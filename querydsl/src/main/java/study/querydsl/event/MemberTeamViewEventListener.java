@@ -0,0 +1,127 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberTeamViewRepository;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 회원/팀 변경 이후 member_team_view 를 다시 맞춘다.
+ *  - 엔티티 변경 : 바뀐 회원, 이름이 바뀌거나 지워진 팀의 회원을 세션별로 모아 두었다가 flush 가 끝나면 한 번에 고친다.
+ *  - 벌크 연산 : MemberBulkChangedEvent
+ *
+ * 이벤트마다 SQL 을 실행하면 member 를 다시 읽으려고 쌓여 있는 JDBC 배치(hibernate.jdbc.batch_size)를 먼저 실행해야 해서 배치가 깨진다.
+ * flush 가 끝나면 배치도 다 실행된 뒤이므로 member 테이블 기준으로 다시 맞춘다. (같은 커넥션, 같은 트랜잭션)
+ * > 커밋 전 flush 와 쿼리 전 자동 flush 모두 거치므로 같은 트랜잭션 안의 조회도 바뀐 뷰를 본다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberTeamViewEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private final MemberTeamViewRepository memberTeamViewRepository;
+
+    private final PendingChanges<Changes> pending = new PendingChanges<>(Changes::new);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).memberIds.add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Team) {
+            Object name = property(event.getPersister(), event.getState(), "name");
+            if (event.getOldState() == null || !Objects.equals(property(event.getPersister(), event.getOldState(), "name"), name)) {
+                pending.get(event.getSession()).teamIds.add((Long) event.getId());
+            }
+        } else if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).memberIds.add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Team) {
+            pending.get(event.getSession()).teamIds.add((Long) event.getId());
+        } else if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).memberIds.add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        refresh(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        refresh(event.getSession());
+    }
+
+    /**
+     * 벌크 연산으로 어떤 회원이 바뀌었는지 모르면 전체를, 알면 해당 회원만 다시 만든다.
+     */
+    @EventListener
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (event.isAll()) {
+            memberTeamViewRepository.rebuild();
+        } else {
+            memberTeamViewRepository.refresh(event.getMemberIds());
+        }
+    }
+
+    private void refresh(EventSource session) {
+        Changes changes = pending.take(session);
+        if (changes == null) {
+            return;
+        }
+
+        if (!changes.memberIds.isEmpty()) {
+            memberTeamViewRepository.refresh(changes.memberIds);
+        }
+        if (!changes.teamIds.isEmpty()) {
+            memberTeamViewRepository.refreshTeams(changes.teamIds);
+        }
+    }
+
+    private Object property(EntityPersister persister, Object[] state, String name) {
+        return state[persister.getEntityMetamodel().getPropertyIndex(name)];
+    }
+
+    /**
+     * flush 한 번 동안 바뀐 회원/팀 ID
+     */
+    private static class Changes {
+
+        private final Set<Long> memberIds = new LinkedHashSet<>();
+        private final Set<Long> teamIds = new LinkedHashSet<>();
+
+    }
+
+}
@@ -0,0 +1,106 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberTrigramRepository;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 회원명이 바뀐 회원을 모아 두었다가 flush 가 끝나면 member_trigram 색인을 한 번에 고친다.
+ * > flush 가 끝나면 JDBC 배치도 다 실행된 뒤이므로 member 테이블 기준으로 다시 만든다. (같은 커넥션, 같은 트랜잭션)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberTrigramEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private final MemberTrigramRepository memberTrigramRepository;
+
+    private final PendingChanges<Set<Long>> pending = new PendingChanges<>(LinkedHashSet::new);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+
+        if (event.getOldState() == null
+                || !Objects.equals(username(event.getPersister(), event.getOldState()), username(event.getPersister(), event.getState()))) {
+            pending.get(event.getSession()).add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).add((Long) event.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        refresh(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        refresh(event.getSession());
+    }
+
+    /**
+     * 벌크 연산으로 어떤 회원명이 바뀌었는지 모르면 전체를, 알면 해당 회원만 다시 만든다.
+     * > 회원명을 바꾸지 않은 벌크 연산(나이 더하기 등)은 건너뛴다.
+     */
+    @EventListener
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (!event.isUsernameChanged()) {
+            return;
+        }
+        if (event.isAll()) {
+            memberTrigramRepository.rebuild();
+        } else {
+            memberTrigramRepository.refresh(event.getMemberIds());
+        }
+    }
+
+    private void refresh(EventSource session) {
+        Set<Long> memberIds = pending.take(session);
+        if (memberIds != null && !memberIds.isEmpty()) {
+            memberTrigramRepository.refresh(memberIds);
+        }
+    }
+
+    private String username(EntityPersister persister, Object[] state) {
+        return (String) state[persister.getEntityMetamodel().getPropertyIndex("username")];
+    }
+
+}
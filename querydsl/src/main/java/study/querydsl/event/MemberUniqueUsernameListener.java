@@ -0,0 +1,26 @@
+package study.querydsl.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import study.querydsl.entity.Member;
+
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * 저장/수정 전에 unique_username 을 username 에 맞춘다.
+ *
+ * 하이버네이트가 SpringBeanContainer 로 만드는 엔티티 리스너라서 설정을 주입받는다.
+ * > 스프링 없이 만들어지면(샤드 EntityManagerFactory) 모드는 꺼진 것으로 본다.
+ */
+public class MemberUniqueUsernameListener {
+
+    @Autowired(required = false)
+    private MemberUniqueUsernameSynchronizer.UniqueUsernameProperties uniqueUsernameProperties;
+
+    @PrePersist
+    @PreUpdate
+    public void syncUniqueUsername(Member member) {
+        member.syncUniqueUsername(uniqueUsernameProperties != null && uniqueUsernameProperties.isEnabled());
+    }
+
+}
@@ -0,0 +1,94 @@
+package study.querydsl.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.InClauseSupport;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * unique-username 모드 > username 을 자연 키(unique_username)로 쓰고 자연 키/엔티티를 2차 캐시에 둔다.
+ *
+ * 엔티티로 바꾸면 하이버네이트가 캐시를 고친다. (이름 변경 포함)
+ * 벌크 연산(JDBC, StatelessSession)은 캐시를 거치지 않으므로
+ *  1. 같은 트랜잭션 안에서 unique_username 을 SQL 로 다시 맞추고 (username 이 바뀌었을 때만)
+ *  2. 트랜잭션이 끝나면 회원 자연 키/엔티티 캐시를 비운다. (나이만 바뀌어도 엔티티 캐시는 낡는다)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberUniqueUsernameSynchronizer {
+
+    private static final String SYNC =
+            "UPDATE member SET unique_username = username WHERE unique_username IS DISTINCT FROM username";
+
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UniqueUsernameProperties uniqueUsernameProperties;
+
+    public boolean isEnabled() {
+        return uniqueUsernameProperties.isEnabled();
+    }
+
+    @EventListener
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (!isEnabled() || !event.isUsernameChanged()) {
+            return;
+        }
+
+        if (event.isAll()) {
+            namedParameterJdbcTemplate.update(SYNC, new MapSqlParameterSource());
+            return;
+        }
+
+        if (event.getMemberIds().isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseSupport.chunk(event.getMemberIds(), InClauseSupport.CHUNK_SIZE)) {
+            namedParameterJdbcTemplate.update(
+                    SYNC + " AND member_id IN (:memberIds)",
+                    new MapSqlParameterSource("memberIds", chunk)
+            );
+        }
+    }
+
+    /**
+     * 커밋 전에 비우면 다른 트랜잭션이 바뀌기 전 값을 다시 캐시에 넣을 수 있으므로 트랜잭션이 끝난 뒤에 비운다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void evictAfterMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictNaturalIdData(Member.class);
+        cache.evictEntityData(Member.class);
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.unique-username")
+    static class UniqueUsernameProperties {
+
+        /**
+         * 켜면 username 이 유일해야 한다. (unique_username 유니크 제약)
+         * spring.jpa.properties.hibernate.cache.use_second_level_cache 도 이 값을 따른다.
+         */
+        private boolean enabled = false;
+
+    }
+
+}
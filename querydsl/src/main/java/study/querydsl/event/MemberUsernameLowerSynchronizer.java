@@ -0,0 +1,79 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.InClauseSupport;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 벌크 연산은 @PrePersist/@PreUpdate 콜백을 거치지 않으므로 username_lower 를 다시 맞춘다.
+ *
+ * 정규화는 엔티티와 같은 Member.normalizeUsername (자바) 으로만 한다.
+ * > SQL LOWER() 는 DB 마다 (로케일, 유니코드 규칙) 결과가 달라서 검색어 정규화와 어긋날 수 있다.
+ * 다른 읽기 모델(member_team_view)이 username_lower 를 복사하므로 가장 먼저 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberUsernameLowerSynchronizer {
+
+    private static final String SELECT = "SELECT member_id, username, username_lower FROM member";
+
+    private static final String UPDATE = "UPDATE member SET username_lower = ? WHERE member_id = ?";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (!event.isUsernameChanged()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        if (event.isAll()) {
+            jdbcTemplate.query(SELECT, collect(batch));
+        } else if (!event.getMemberIds().isEmpty()) {
+            for (List<Long> chunk : InClauseSupport.chunk(event.getMemberIds(), InClauseSupport.CHUNK_SIZE)) {
+                namedParameterJdbcTemplate.query(
+                        SELECT + " WHERE member_id IN (:memberIds)",
+                        new MapSqlParameterSource("memberIds", chunk),
+                        collect(batch)
+                );
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE, batch);
+        }
+    }
+
+    /**
+     * 정규화한 값이 다른 회원만 모으고, BATCH_SIZE 개가 차면 바로 저장한다.
+     */
+    private RowCallbackHandler collect(List<Object[]> batch) {
+        return resultSet -> {
+            String usernameLower = Member.normalizeUsername(resultSet.getString("username"));
+            if (!Objects.equals(usernameLower, resultSet.getString("username_lower"))) {
+                batch.add(new Object[]{usernameLower, resultSet.getLong("member_id")});
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(UPDATE, batch);
+                batch.clear();
+            }
+        };
+    }
+
+}
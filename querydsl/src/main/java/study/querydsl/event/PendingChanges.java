@@ -0,0 +1,38 @@
+package study.querydsl.event;
+
+import org.hibernate.event.spi.EventSource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 하이버네이트 이벤트 리스너가 세션별로 모아 두는 변경
+ *
+ * flush 가 끝나면 take 로 꺼내서 반영한다.
+ * flush 가 실패해서 반영하지 못한 변경은 트랜잭션이 끝나면 버린다. (롤백된다)
+ */
+class PendingChanges<T> {
+
+    private final Map<EventSource, T> pending = new ConcurrentHashMap<>();
+    private final Supplier<T> factory;
+
+    PendingChanges(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    T get(EventSource session) {
+        return pending.computeIfAbsent(session, key -> {
+            key.getActionQueue().registerProcess((success, sessionImplementor) -> pending.remove(key));
+            return factory.get();
+        });
+    }
+
+    /**
+     * 모아 둔 변경이 없으면 null
+     */
+    T take(EventSource session) {
+        return pending.remove(session);
+    }
+
+}
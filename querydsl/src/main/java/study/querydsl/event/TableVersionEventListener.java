@@ -0,0 +1,69 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+/**
+ * 회원/팀 변경이 커밋되면 TableVersions 를 올린다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TableVersionEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final TableVersions tableVersions;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        bumpAfterCommit(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        bumpAfterCommit(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        bumpAfterCommit(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * 벌크 연산은 어떤 테이블까지 바뀌었는지 모르므로(JDBC 적재는 팀도 만든다) 둘 다 올린다.
+     * > 트랜잭션 밖에서 발행되면 바로 올린다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        tableVersions.bump(TableVersions.MEMBER);
+        tableVersions.bump(TableVersions.TEAM);
+    }
+
+    private void bumpAfterCommit(EventSource session, Object entity) {
+        String table = entity instanceof Member ? TableVersions.MEMBER : entity instanceof Team ? TableVersions.TEAM : null;
+        if (table == null) {
+            return;
+        }
+
+        session.getActionQueue().registerProcess((success, sessionImplementor) -> {
+            if (success) {
+                tableVersions.bump(table);
+            }
+        });
+    }
+
+}
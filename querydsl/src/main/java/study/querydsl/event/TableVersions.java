@@ -0,0 +1,42 @@
+package study.querydsl.event;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 테이블별 변경 버전 (커밋될 때마다 1 씩 오른다)
+ *
+ * 조회 결과가 바뀌었는지 DB 를 보지 않고 판단할 때 쓴다. (ETag)
+ *  - 엔티티 변경은 TableVersionEventListener, 벌크 연산은 MemberBulkChangedEvent 로 올린다.
+ *  - 샤드 쓰기는 리스너가 없으므로 ShardedMemberRepository / MemberImportService / ChunkJobRunner 가 커밋 뒤에 직접 올린다.
+ *  - 커밋이 끝난 뒤에 올린다. > 커밋 전에 올리면 새 버전으로 이전 데이터를 캐시할 수 있다.
+ *
+ * ! 메모리 카운터라서 인스턴스마다 따로 센다. 재시작하면 epoch 가 바뀌어 이전 ETag 는 모두 무효가 된다.
+ */
+@Component
+public class TableVersions {
+
+    public static final String MEMBER = "member";
+    public static final String TEAM = "team";
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long get(String table) {
+        AtomicLong version = versions.get(table);
+        return version == null ? 0 : version.get();
+    }
+
+    public void bump(String table) {
+        versions.computeIfAbsent(table, key -> new AtomicLong()).incrementAndGet();
+    }
+
+}
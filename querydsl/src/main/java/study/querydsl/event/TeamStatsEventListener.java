@@ -0,0 +1,173 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamStatsRepository;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 회원/팀 변경을 team_stats 에 증감분으로 반영한다.
+ *
+ * 이벤트마다 팀별 증감분(회원 수 +1/-1, 나이 합 +-나이)만 모아 두었다가 flush 가 끝나면 배치로 더한다.
+ * > flush 도중에 SQL 을 실행하면 쌓여 있는 JDBC 배치가 깨지고, 팀 전체를 다시 집계하면 쓰기마다 팀 크기만큼 읽는다.
+ * 최소/최대값은 빠지는 나이가 현재 경계값일 때만 해당 팀 회원으로 다시 구한다.
+ *
+ * flush 는 JpaTransactionManager 트랜잭션 안에서 일어나므로 리포지토리의 JdbcTemplate 도 같은 커넥션(같은 트랜잭션)을 쓴다.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamStatsEventListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        FlushEventListener, AutoFlushEventListener {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    private final PendingChanges<Changes> pending = new PendingChanges<>(Changes::new);
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Team) {
+            pending.get(event.getSession()).insertedTeamIds.add((Long) event.getId());
+        } else if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).add(MemberState.of(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+
+        MemberState current = MemberState.of(event.getPersister(), event.getState());
+        if (event.getOldState() == null) {
+            // 이전 상태를 모르면(detached update) 현재 팀만 다시 계산한다. 이전 팀은 주기적 재계산이 맞춘다.
+            if (current.teamId != null) {
+                pending.get(event.getSession()).recalculateTeamIds.add(current.teamId);
+            }
+            return;
+        }
+
+        MemberState old = MemberState.of(event.getPersister(), event.getOldState());
+        if (!Objects.equals(old.teamId, current.teamId) || old.age != current.age) {
+            Changes changes = pending.get(event.getSession());
+            changes.remove(old);
+            changes.add(current);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Team) {
+            pending.get(event.getSession()).deletedTeamIds.add((Long) event.getId());
+        } else if (event.getEntity() instanceof Member) {
+            pending.get(event.getSession()).remove(MemberState.of(event.getPersister(), event.getDeletedState()));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        apply(event.getSession());
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        apply(event.getSession());
+    }
+
+    private void apply(EventSource session) {
+        Changes changes = pending.take(session);
+        if (changes == null) {
+            return;
+        }
+
+        // 같은 flush 에서 지워진 팀의 증감분은 버린다.
+        changes.deltas.keySet().removeAll(changes.deletedTeamIds);
+        changes.recalculateTeamIds.removeAll(changes.deletedTeamIds);
+
+        if (!changes.insertedTeamIds.isEmpty()) {
+            teamStatsRepository.insertEmpty(changes.insertedTeamIds);
+        }
+        if (!changes.deltas.isEmpty()) {
+            teamStatsRepository.apply(changes.deltas.values());
+        }
+        if (!changes.recalculateTeamIds.isEmpty()) {
+            teamStatsRepository.refresh(changes.recalculateTeamIds);
+        }
+        if (!changes.deletedTeamIds.isEmpty()) {
+            teamStatsRepository.delete(changes.deletedTeamIds);
+        }
+    }
+
+    /**
+     * flush 한 번 동안 모은 팀별 증감분
+     */
+    private static class Changes {
+
+        private final Set<Long> insertedTeamIds = new LinkedHashSet<>();
+        private final Set<Long> deletedTeamIds = new LinkedHashSet<>();
+        private final Set<Long> recalculateTeamIds = new LinkedHashSet<>();
+        private final Map<Long, TeamStatsRepository.Delta> deltas = new HashMap<>();
+
+        void add(MemberState state) {
+            if (state.teamId != null) {
+                deltas.computeIfAbsent(state.teamId, TeamStatsRepository.Delta::new).add(state.age);
+            }
+        }
+
+        void remove(MemberState state) {
+            if (state.teamId != null) {
+                deltas.computeIfAbsent(state.teamId, TeamStatsRepository.Delta::new).remove(state.age);
+            }
+        }
+
+    }
+
+    /**
+     * 엔티티 상태 배열에서 통계에 필요한 값(팀 ID, 나이)만 꺼낸다.
+     */
+    private static class MemberState {
+
+        private final Long teamId;
+        private final int age;
+
+        private MemberState(Long teamId, int age) {
+            this.teamId = teamId;
+            this.age = age;
+        }
+
+        static MemberState of(EntityPersister persister, Object[] state) {
+            Team team = (Team) state[persister.getEntityMetamodel().getPropertyIndex("team")];
+            Integer age = (Integer) state[persister.getEntityMetamodel().getPropertyIndex("age")];
+            return new MemberState(
+                    team == null ? null : team.getId(),
+                    age == null ? 0 : age
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package study.querydsl.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.repository.TeamStatsRepository;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamStatsReconciler {
+
+    private final TeamStatsRepository teamStatsRepository;
+
+    /**
+     * 벌크 연산은 엔티티 리스너를 거치지 않으므로 같은 트랜잭션 안에서 다시 맞춘다.
+     * > 바뀐 팀을 알면 그 팀만, 모르면 전체
+     */
+    @EventListener
+    public void onMemberBulkChanged(MemberBulkChangedEvent event) {
+        if (event.isAllTeams()) {
+            teamStatsRepository.reconcile();
+        } else if (!event.getTeamIds().isEmpty()) {
+            teamStatsRepository.refresh(event.getTeamIds());
+        }
+    }
+
+    @Transactional
+    @Scheduled(
+            initialDelayString = "${querydsl.team-stats.reconcile-interval-ms:600000}",
+            fixedDelayString = "${querydsl.team-stats.reconcile-interval-ms:600000}"
+    )
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        teamStatsRepository.reconcile();
+        log.info("[team-stats] reconciled in {}ms", System.currentTimeMillis() - start);
+    }
+
+}
@@ -0,0 +1,46 @@
+package study.querydsl.monitor;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 요청 전후로 Hibernate Statistics 스냅샷을 떠서 요청 하나가 만든 작업량(증감량)을 기록한다.
+ *
+ * ! Statistics 는 SessionFactory 전역 카운터이므로 동시에 처리 중인 다른 요청의 작업량도 섞여 들어간다.
+ *   > 부하가 없는 환경에서 한 요청씩 호출하며 분석하는 용도로 사용
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HibernateStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER_NAME = "X-Hibernate-Statistics";
+    public static final String ATTRIBUTE_NAME = HibernateStatisticsFilter.class.getName() + ".DELTA";
+
+    private final Statistics statistics;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        // 바디를 잡아둬야 요청이 끝난 뒤에도 헤더를 추가할 수 있다.
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        HibernateStatisticsSnapshot before = HibernateStatisticsSnapshot.of(statistics);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            HibernateStatisticsSnapshot delta = HibernateStatisticsSnapshot.of(statistics).minus(before);
+            request.setAttribute(ATTRIBUTE_NAME, delta);
+            responseWrapper.setHeader(HEADER_NAME, delta.toHeaderValue());
+            log.info("[{} {}?{}] hibernate statistics delta = {}", request.getMethod(), request.getRequestURI(), request.getQueryString(), delta);
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+package study.querydsl.monitor;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.hibernate.stat.Statistics;
+
+/**
+ * Hibernate Statistics 의 누적 카운터를 특정 시점에 복사해 둔 값
+ *
+ * 두 스냅샷의 차이(minus)로 한 구간(요청 하나)에서 발생한 작업량을 구한다.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class HibernateStatisticsSnapshot {
+
+    private final long entityLoadCount;
+    private final long entityFetchCount;
+    private final long collectionLoadCount;
+    private final long collectionFetchCount;
+    private final long flushCount;
+    private final long queryExecutionCount;
+    private final long prepareStatementCount;
+    private final long queryPlanCacheHitCount;
+    private final long queryPlanCacheMissCount;
+    private final long secondLevelCacheHitCount;
+    private final long secondLevelCacheMissCount;
+    private final long secondLevelCachePutCount;
+
+    public static HibernateStatisticsSnapshot of(Statistics statistics) {
+        return new HibernateStatisticsSnapshot(
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                statistics.getFlushCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryPlanCacheHitCount(),
+                statistics.getQueryPlanCacheMissCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()
+        );
+    }
+
+    public HibernateStatisticsSnapshot minus(HibernateStatisticsSnapshot before) {
+        return new HibernateStatisticsSnapshot(
+                entityLoadCount - before.entityLoadCount,
+                entityFetchCount - before.entityFetchCount,
+                collectionLoadCount - before.collectionLoadCount,
+                collectionFetchCount - before.collectionFetchCount,
+                flushCount - before.flushCount,
+                queryExecutionCount - before.queryExecutionCount,
+                prepareStatementCount - before.prepareStatementCount,
+                queryPlanCacheHitCount - before.queryPlanCacheHitCount,
+                queryPlanCacheMissCount - before.queryPlanCacheMissCount,
+                secondLevelCacheHitCount - before.secondLevelCacheHitCount,
+                secondLevelCacheMissCount - before.secondLevelCacheMissCount,
+                secondLevelCachePutCount - before.secondLevelCachePutCount
+        );
+    }
+
+    /**
+     * 응답 헤더에 싣기 위한 한 줄 요약
+     */
+    public String toHeaderValue() {
+        return "entityLoad=" + entityLoadCount +
+                ";entityFetch=" + entityFetchCount +
+                ";collectionLoad=" + collectionLoadCount +
+                ";collectionFetch=" + collectionFetchCount +
+                ";flush=" + flushCount +
+                ";query=" + queryExecutionCount +
+                ";statement=" + prepareStatementCount +
+                ";planCacheHit=" + queryPlanCacheHitCount +
+                ";planCacheMiss=" + queryPlanCacheMissCount +
+                ";l2cHit=" + secondLevelCacheHitCount +
+                ";l2cMiss=" + secondLevelCacheMissCount +
+                ";l2cPut=" + secondLevelCachePutCount;
+    }
+
+}
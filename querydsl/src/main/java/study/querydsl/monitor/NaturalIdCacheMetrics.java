@@ -0,0 +1,49 @@
+package study.querydsl.monitor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 자연 키 캐시 적중/실패 횟수와 적중률
+ *
+ * unique-username 모드에서 findByUsernameCached 가 DB 를 건너뛰는지 /actuator/metrics/hibernate.natural.id.cache.* 로 확인한다.
+ * > 2차 캐시가 꺼져 있으면(모드가 꺼져 있으면) 0 이다.
+ */
+@Component
+public class NaturalIdCacheMetrics implements MeterBinder {
+
+    private final Statistics statistics;
+
+    public NaturalIdCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("hibernate.natural.id.cache.requests", statistics, Statistics::getNaturalIdCacheHitCount)
+                .tag("result", "hit")
+                .description("Natural id cache hits")
+                .register(registry);
+        FunctionCounter.builder("hibernate.natural.id.cache.requests", statistics, Statistics::getNaturalIdCacheMissCount)
+                .tag("result", "miss")
+                .description("Natural id cache misses")
+                .register(registry);
+        Gauge.builder("hibernate.natural.id.cache.hit.ratio", statistics, NaturalIdCacheMetrics::hitRatio)
+                .description("Natural id cache hit ratio")
+                .register(registry);
+    }
+
+    private static double hitRatio(Statistics statistics) {
+        long hit = statistics.getNaturalIdCacheHitCount();
+        long total = hit + statistics.getNaturalIdCacheMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+}
@@ -0,0 +1,71 @@
+package study.querydsl.repository;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Member;
+import study.querydsl.event.MemberBulkChangedEvent;
+import study.querydsl.repository.support.Querydsl4RepositorySupport;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 회원 대량 조회/저장 (StatelessSession)
+ *
+ * MemberJpaRepository.findAll 처럼 전체를 영속성 컨텍스트에 올리지 않는다.
+ * 엔티티 리스너를 거치지 않으므로 쓰기 후에는 MemberBulkChangedEvent 로 읽기 모델을 다시 맞춘다.
+ *
+ * ! 트랜잭션 안에서만 쓸 수 있다.
+ */
+@Repository
+public class MemberBatchRepository extends Querydsl4RepositorySupport {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public MemberBatchRepository(ApplicationEventPublisher eventPublisher) {
+        super(Member.class);
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * 전체 회원을 ID 순서로 한 명씩 처리한다. 팀은 fetch join 으로 같이 읽는다. (지연 로딩 불가)
+     */
+    public long forEachMember(Consumer<Member> action) {
+        return getStatelessSessionSupport().scroll(
+                queryFactory -> queryFactory
+                        .selectFrom(member)
+                        .leftJoin(member.team, team).fetchJoin()
+                        .orderBy(member.id.asc()),
+                action
+        );
+    }
+
+    public int insertMembers(List<Member> members) {
+        members.forEach(Member::syncUsernameLower);
+        int count = getStatelessSessionSupport().insertAll(members);
+
+        eventPublisher.publishEvent(MemberBulkChangedEvent.of(
+                members.stream().map(Member::getId).collect(Collectors.toList())));
+        return count;
+    }
+
+    /**
+     * 회원을 하나씩 읽어 나이를 더한다. 벌크 update 와 달리 행마다 @Version 을 검사한다.
+     */
+    public long addAge(int amount) {
+        long count = getStatelessSessionSupport().updateEach(
+                queryFactory -> queryFactory.selectFrom(member),
+                target -> target.setAge(target.getAge() + amount)
+        );
+
+        // 영속성 컨텍스트에 남은 회원은 바뀌기 전 값이다.
+        getEntityManager().clear();
+        eventPublisher.publishEvent(MemberBulkChangedEvent.allAges());
+        return count;
+    }
+
+}
@@ -3,15 +3,24 @@ package study.querydsl.repository;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.condition.MemberSearchCondition;
 import study.querydsl.entity.dto.MemberTeamDto;
 import study.querydsl.entity.dto.QMemberTeamDto;
+import study.querydsl.event.MemberBulkChangedEvent;
+import study.querydsl.event.MemberUniqueUsernameSynchronizer;
+import study.querydsl.repository.support.InClauseSupport;
+import study.querydsl.repository.support.MultiLoadSupport;
+import study.querydsl.repository.support.NaturalIdSupport;
 
 import javax.persistence.EntityManager;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -22,15 +31,21 @@ public class MemberJpaRepository {
 
     private final EntityManager entityManager;
     private final JPAQueryFactory jpaQueryFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberUniqueUsernameSynchronizer uniqueUsernameSynchronizer;
 
     /*public MemberJpaRepository(EntityManager entityManager, JPAQueryFactory jpaQueryFactory) {
         this.entityManager = entityManager;
         this.jpaQueryFactory = jpaQueryFactory;
     }*/
 
-    public MemberJpaRepository(EntityManager entityManager) {
+    public MemberJpaRepository(EntityManager entityManager,
+                               ApplicationEventPublisher eventPublisher,
+                               MemberUniqueUsernameSynchronizer uniqueUsernameSynchronizer) {
         this.entityManager = entityManager;
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.eventPublisher = eventPublisher;
+        this.uniqueUsernameSynchronizer = uniqueUsernameSynchronizer;
     }
 
     public void save(Member member) {
@@ -42,6 +57,14 @@ public class MemberJpaRepository {
         return Optional.ofNullable(member);
     }
 
+    /**
+     * findById 반복 대신 ID 목록을 한 번에 조회한다. (MultiLoadSupport)
+     */
+    @Transactional(readOnly = true)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        return MultiLoadSupport.findAllByIds(entityManager, Member.class, ids);
+    }
+
     public List<Member> findAll() {
         return entityManager.createQuery(
                 "select m from Member m",
@@ -70,14 +93,35 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * unique-username 모드면 자연 키 캐시로 찾는다. (NaturalIdSupport)
+     * 모드가 꺼져 있으면 username 이 중복될 수 있으므로 findByUsername_QueryDSL 의 첫 번째 회원을 돌려준다.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Member> findByUsernameCached(String username) {
+        if (!uniqueUsernameSynchronizer.isEnabled()) {
+            return findByUsername_QueryDSL(username).stream().findFirst();
+        }
+        return NaturalIdSupport.findBySimpleNaturalId(entityManager, Member.class, username);
+    }
+
     public List<MemberTeamDto> searchByBuilder(MemberSearchCondition memberSearchCondition) {
         BooleanBuilder booleanBuilder = new BooleanBuilder();
         if (hasText(memberSearchCondition.getUsername())) {
-            booleanBuilder.and(member.username.eq(memberSearchCondition.getUsername()));
+            booleanBuilder.and(isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()));
+        }
+        if (hasText(memberSearchCondition.getUsernameContains())) {
+            booleanBuilder.and(isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()));
+        }
+        if (memberSearchCondition.getUsernames() != null && !memberSearchCondition.getUsernames().isEmpty()) {
+            booleanBuilder.and(isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()));
         }
         if (hasText(memberSearchCondition.getTeamName())) {
             booleanBuilder.and(team.name.eq(memberSearchCondition.getTeamName()));
         }
+        if (memberSearchCondition.getTeamNames() != null && !memberSearchCondition.getTeamNames().isEmpty()) {
+            booleanBuilder.and(isTeamNameIn(memberSearchCondition.getTeamNames()));
+        }
         if (memberSearchCondition.getAgeGoe() != null) {
             booleanBuilder.and(member.age.goe(memberSearchCondition.getAgeGoe()));
         }
@@ -101,7 +145,17 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
+    /**
+     * IN 목록이 CHUNK_SIZE 를 넘으면 나눠서 조회하고 결과를 합친다.
+     */
     public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+        if (InClauseSupport.exceedsChunkSize(memberSearchCondition.normalizedUsernames(), memberSearchCondition.getTeamNames())) {
+            return InClauseSupport.fetchInChunks(
+                    memberSearchCondition.normalizedUsernames(),
+                    memberSearchCondition.getTeamNames(),
+                    (usernames, teamNames) -> search(memberSearchCondition.withInLists(usernames, teamNames))
+            );
+        }
         return jpaQueryFactory
                 .select(
                         new QMemberTeamDto(
@@ -115,7 +169,10 @@ public class MemberJpaRepository {
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -123,14 +180,68 @@ public class MemberJpaRepository {
                 .fetch();
     }
 
-    private BooleanExpression isUsernameEqual(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    /**
+     * 모든 회원의 나이를 더한다.
+     *
+     * 벌크 연산은 영속성 컨텍스트와 엔티티 리스너를 거치지 않는다.
+     *  1. 영속성 컨텍스트를 비워서 이후 조회가 DB 값을 보게 한다.
+     *  2. MemberBulkChangedEvent 로 읽기 모델(team_stats 등)을 다시 맞춘다. > username 은 그대로이므로 나이가 들어간 읽기 모델만
+     */
+    public long bulkAddAge(int amount) {
+        long count = jpaQueryFactory
+                .update(member)
+                .set(member.age, member.age.add(amount))
+                .set(member.version, member.version.add(1L)) // 벌크 연산은 @Version 을 올리지 않는다.
+                .execute();
+
+        afterBulk(MemberBulkChangedEvent.allAges());
+        return count;
+    }
+
+    public long bulkDeleteByAgeGreaterThan(int age) {
+        long count = jpaQueryFactory
+                .delete(member)
+                .where(member.age.gt(age))
+                .execute();
+
+        afterBulk(MemberBulkChangedEvent.all());
+        return count;
+    }
+
+    private void afterBulk(MemberBulkChangedEvent event) {
+        entityManager.flush();
+        entityManager.clear();
+        eventPublisher.publishEvent(event);
+    }
+
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? member.usernameLower.eq(Member.normalizeUsername(username)) : member.username.eq(username);
+    }
+
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        return MemberTrigramPredicates.usernameContains(usernameContains, ignoreCase);
     }
 
     private BooleanExpression isTeamnameEqual(String teamName) {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
 
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(member.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(member.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(team.name, teamNames);
+    }
+
     private BooleanExpression isAgeGoeExist(Integer agGoe) {
         return agGoe != null ? member.age.goe(agGoe) : null;
     }
@@ -0,0 +1,26 @@
+package study.querydsl.repository;
+
+import study.querydsl.entity.Member;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MemberRepository 에 붙는 ID 목록/자연 키 조회 (구현 : MemberLookupRepositoryImpl)
+ *
+ * MemberRepositoryCustom 은 검색 대상(조인/뷰/SQL/샤드)마다 구현이 따로 있어서 검색과 분리한다.
+ */
+public interface MemberLookupRepository {
+
+    /**
+     * ids 순서대로 회원을 돌려준다. 없는 ID 는 빠진다. (MultiLoadSupport)
+     */
+    List<Member> findAllByIds(Collection<Long> ids);
+
+    /**
+     * unique-username 모드면 자연 키 캐시로 찾고, 아니면 username 이 같은 첫 번째 회원을 돌려준다. (NaturalIdSupport)
+     */
+    Optional<Member> findByUsernameCached(String username);
+
+}
@@ -0,0 +1,46 @@
+package study.querydsl.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.event.MemberUniqueUsernameSynchronizer;
+import study.querydsl.repository.support.MultiLoadSupport;
+import study.querydsl.repository.support.NaturalIdSupport;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 클래스 네이밍 규칙 : MemberLookupRepository + Impl
+ */
+public class MemberLookupRepositoryImpl implements MemberLookupRepository {
+
+    private final EntityManager entityManager;
+    private final MemberUniqueUsernameSynchronizer uniqueUsernameSynchronizer;
+
+    public MemberLookupRepositoryImpl(EntityManager entityManager, MemberUniqueUsernameSynchronizer uniqueUsernameSynchronizer) {
+        this.entityManager = entityManager;
+        this.uniqueUsernameSynchronizer = uniqueUsernameSynchronizer;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        return MultiLoadSupport.findAllByIds(entityManager, Member.class, ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Member> findByUsernameCached(String username) {
+        if (!uniqueUsernameSynchronizer.isEnabled()) {
+            return entityManager.createQuery("select m from Member m where m.username = :username", Member.class)
+                    .setParameter("username", username)
+                    .setMaxResults(1)
+                    .getResultStream()
+                    .findFirst();
+        }
+        return NaturalIdSupport.findBySimpleNaturalId(entityManager, Member.class, username);
+    }
+
+}
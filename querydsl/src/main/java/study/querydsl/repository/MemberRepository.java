@@ -9,6 +9,7 @@ import java.util.List;
 public interface MemberRepository extends
         JpaRepository<Member, Long>, // 스프링 데이터 JPA 기능 사용
         MemberRepositoryCustom, // 커스텀한 JPA 기능 사용
+        MemberLookupRepository, // ID 목록 조회 (multiLoad)
         QuerydslPredicateExecutor<Member> // 조건이 있는 쿼리를 조회 함수 안에 작성 가능
 {
 
@@ -9,12 +9,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import study.querydsl.entity.Member;
 import study.querydsl.entity.condition.MemberSearchCondition;
 import study.querydsl.entity.dto.MemberTeamDto;
 import study.querydsl.entity.dto.QMemberTeamDto;
+import study.querydsl.repository.support.InClauseSupport;
 
 import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
@@ -33,19 +36,50 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
         this.jpaQueryFactory = new JPAQueryFactory(entityManager);
     }
 
+    /**
+     * IN 목록이 CHUNK_SIZE 를 넘으면 나눠서 조회하고 결과를 합친다.
+     * > 페이징 조회는 나눠서 합칠 수 없으므로 패딩만 한다.
+     */
     @Override
     public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+        if (InClauseSupport.exceedsChunkSize(memberSearchCondition.normalizedUsernames(), memberSearchCondition.getTeamNames())) {
+            return InClauseSupport.fetchInChunks(
+                    memberSearchCondition.normalizedUsernames(),
+                    memberSearchCondition.getTeamNames(),
+                    (usernames, teamNames) -> search(memberSearchCondition.withInLists(usernames, teamNames))
+            );
+        }
         return getMemberTeamDtos(memberSearchCondition);
     }
 
-    private BooleanExpression isUsernameEqual(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? member.usernameLower.eq(Member.normalizeUsername(username)) : member.username.eq(username);
+    }
+
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        return MemberTrigramPredicates.usernameContains(usernameContains, ignoreCase);
     }
 
     private BooleanExpression isTeamnameEqual(String teamName) {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
 
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(member.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(member.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(team.name, teamNames);
+    }
+
     private BooleanExpression isAgeGoeExist(Integer agGoe) {
         return agGoe != null ? member.age.goe(agGoe) : null;
     }
@@ -105,7 +139,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -134,7 +171,10 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom{
                 .from(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -0,0 +1,56 @@
+package study.querydsl.repository;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 엔드포인트별 회원 검색 대상
+ *
+ * querydsl.search-source.endpoints.v2=view 처럼 엔드포인트마다 고른다. (기본값 join)
+ *  - JOIN : member 와 team 을 조인해서 검색
+ *  - VIEW : member_team_view 한 테이블에서 검색 (MemberTeamViewRepository)
+ *  - SQL : querydsl-sql 로 조인해서 검색, JPA 엔티티를 거치지 않는다. (MemberSqlRepository)
+ *  - SHARD : 샤드 전체에 나눠 검색 (ShardedMemberRepository)
+ *
+ * querydsl.shard.enabled 가 켜지면 회원은 샤드에만 저장되므로 엔드포인트 설정과 상관없이 SHARD 다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "querydsl.search-source")
+public class MemberSearchSource {
+
+    private final boolean shardEnabled;
+
+    private Map<String, Source> endpoints = new HashMap<>();
+
+    public MemberSearchSource(@Value("${querydsl.shard.enabled:false}") boolean shardEnabled) {
+        this.shardEnabled = shardEnabled;
+    }
+
+    public Source getSource(String endpoint) {
+        if (shardEnabled) {
+            return Source.SHARD;
+        }
+        Source source = endpoints.getOrDefault(endpoint, Source.JOIN);
+        if (source == Source.SHARD) {
+            throw new IllegalStateException("querydsl.shard.enabled 가 꺼져 있습니다. endpoint = " + endpoint);
+        }
+        return source;
+    }
+
+    public boolean isView(String endpoint) {
+        return getSource(endpoint) == Source.VIEW;
+    }
+
+    public enum Source {
+        JOIN, VIEW, SQL, SHARD
+    }
+
+}
@@ -0,0 +1,251 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.QMemberTeamDto;
+import study.querydsl.repository.support.InClauseSupport;
+import study.querydsl.sql.SMember;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.SMemberTrigram.memberTrigram;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * querydsl-sql 로 member 와 team 을 조인해서 검색한다. (JPA 엔티티를 거치지 않는다)
+ *
+ * MemberRepositoryImpl 과 같은 조건/결과를 돌려주므로 엔드포인트마다 바꿔 쓸 수 있다. (querydsl.search-source)
+ * 조회 결과는 영속성 컨텍스트에 올라가지 않고 JDBC ResultSet 에서 바로 MemberTeamDto 로 만든다.
+ */
+@Repository
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberSqlRepository implements MemberRepositoryCustom {
+
+    /**
+     * 윈도 함수 결과로 거르는 쿼리의 FROM 절 서브쿼리 > select ... over (...) as 이름 from member
+     */
+    private static final PathBuilder<Object> windowed = new PathBuilder<>(Object.class, "windowed");
+    private static final NumberPath<Long> windowedMemberId = Expressions.numberPath(Long.class, windowed, "member_id");
+    private static final StringPath windowedUsername = Expressions.stringPath(windowed, "username");
+    private static final NumberPath<Integer> windowedAge = Expressions.numberPath(Integer.class, windowed, "age");
+    private static final NumberPath<Long> windowedTeamId = Expressions.numberPath(Long.class, windowed, "team_id");
+    private static final NumberPath<Double> windowedTeamAverageAge = Expressions.numberPath(Double.class, windowed, "team_average_age");
+    private static final NumberPath<Long> windowedAgeRowNumber = Expressions.numberPath(Long.class, windowed, "age_row_number");
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+        if (InClauseSupport.exceedsChunkSize(memberSearchCondition.normalizedUsernames(), memberSearchCondition.getTeamNames())) {
+            return InClauseSupport.fetchInChunks(
+                    memberSearchCondition.normalizedUsernames(),
+                    memberSearchCondition.getTeamNames(),
+                    (usernames, teamNames) -> search(memberSearchCondition.withInLists(usernames, teamNames))
+            );
+        }
+        return getMemberDtoQuery(memberSearchCondition)
+                .fetch();
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchSimple(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        QueryResults<MemberTeamDto> memberTeamDtoQueryResults = getMemberDtoQuery(memberSearchCondition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetchResults();
+
+        return new PageImpl<>(memberTeamDtoQueryResults.getResults(), pageable, memberTeamDtoQueryResults.getTotal());
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchComplex(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        List<MemberTeamDto> memberTeamDtos = getMemberDtoQuery(memberSearchCondition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        return PageableExecutionUtils
+                .getPage(
+                        memberTeamDtos,
+                        pageable,
+                        () -> getMemberDtoQuery(memberSearchCondition).fetchCount()
+                );
+    }
+
+    /**
+     * 나이가 팀 평균 이상인 회원 (팀이 없는 회원은 빠진다)
+     * 팀 평균을 윈도 함수로 한 번에 계산하고 DB 에서 거른다. > 팀 평균 서브쿼리를 회원마다 실행하지 않는다.
+     */
+    public List<MemberTeamDto> findAgeGoeTeamAverage() {
+        SMember memberSub = new SMember("member_sub");
+
+        return selectWindowed(
+                SQLExpressions
+                        .select(
+                                memberSub.memberId.as(windowedMemberId),
+                                memberSub.username.as(windowedUsername),
+                                memberSub.age.as(windowedAge),
+                                memberSub.teamId.as(windowedTeamId),
+                                // avg(INTEGER) 는 DOUBLE 이지만 Querydsl 타입은 Integer 라서 이름으로 붙인다.
+                                SQLExpressions.avg(memberSub.age).over()
+                                        .partitionBy(memberSub.teamId)
+                                        .as(windowedTeamAverageAge.getMetadata().getName())
+                        )
+                        .from(memberSub)
+                        .where(memberSub.teamId.isNotNull())
+        )
+                .where(windowedAge.goe(windowedTeamAverageAge))
+                .fetch();
+    }
+
+    /**
+     * 팀마다 나이가 많은 순서로 limit 명 (나이가 같으면 ID 순서)
+     * 팀 안의 순번을 윈도 함수로 한 번에 계산하고 DB 에서 거른다.
+     */
+    public List<MemberTeamDto> findOldestPerTeam(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit 은 1 이상이어야 한다. : " + limit);
+        }
+        SMember memberSub = new SMember("member_sub");
+
+        return selectWindowed(
+                SQLExpressions
+                        .select(
+                                memberSub.memberId.as(windowedMemberId),
+                                memberSub.username.as(windowedUsername),
+                                memberSub.age.as(windowedAge),
+                                memberSub.teamId.as(windowedTeamId),
+                                SQLExpressions.rowNumber().over()
+                                        .partitionBy(memberSub.teamId)
+                                        .orderBy(memberSub.age.desc(), memberSub.memberId.asc())
+                                        .as(windowedAgeRowNumber)
+                        )
+                        .from(memberSub)
+                        .where(memberSub.teamId.isNotNull())
+        )
+                .where(windowedAgeRowNumber.loe((long) limit))
+                .fetch();
+    }
+
+    private SQLQuery<MemberTeamDto> selectWindowed(SQLQuery<?> windowedQuery) {
+        return sqlQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                windowedMemberId,
+                                windowedUsername,
+                                windowedAge,
+                                team.teamId,
+                                team.name
+                        )
+                )
+                .from(windowedQuery, windowed)
+                .join(team).on(team.teamId.eq(windowedTeamId))
+                .orderBy(windowedTeamId.asc(), windowedAge.desc(), windowedMemberId.asc());
+    }
+
+    private SQLQuery<MemberTeamDto> getMemberDtoQuery(MemberSearchCondition memberSearchCondition) {
+        return sqlQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                member.memberId,
+                                member.username,
+                                member.age,
+                                team.teamId,
+                                team.name
+                        )
+                )
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
+                        isTeamnameEqual(memberSearchCondition.getTeamName()),
+                        isAgeGoeExist(memberSearchCondition.getAgeGoe()),
+                        isAgeLoeExist(memberSearchCondition.getAgeLoe())
+                );
+    }
+
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? member.usernameLower.eq(Member.normalizeUsername(username)) : member.username.eq(username);
+    }
+
+    /**
+     * MemberTrigramPredicates 와 같은 조건 > 트라이그램 색인으로 후보를 고르고 like 로 확인한다.
+     */
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        if (!hasText(usernameContains)) {
+            return null;
+        }
+
+        BooleanExpression verify = ignoreCase
+                ? member.usernameLower.contains(Member.normalizeUsername(usernameContains))
+                : member.username.contains(usernameContains);
+
+        Set<String> trigrams = MemberTrigramRepository.trigramsOf(usernameContains);
+        if (trigrams.isEmpty()) {
+            return verify;
+        }
+
+        return member.memberId.in(
+                SQLExpressions
+                        .select(memberTrigram.memberId)
+                        .from(memberTrigram)
+                        .where(memberTrigram.trigram.in(trigrams))
+                        .groupBy(memberTrigram.memberId)
+                        .having(memberTrigram.trigram.count().eq((long) trigrams.size()))
+        ).and(verify);
+    }
+
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(member.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(member.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(team.name, teamNames);
+    }
+
+    private BooleanExpression isTeamnameEqual(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression isAgeGoeExist(Integer agGoe) {
+        return agGoe != null ? member.age.goe(agGoe) : null;
+    }
+
+    private BooleanExpression isAgeLoeExist(Integer agLoe) {
+        return agLoe != null ? member.age.loe(agLoe) : null;
+    }
+
+}
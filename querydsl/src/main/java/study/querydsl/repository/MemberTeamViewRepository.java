@@ -0,0 +1,192 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.QueryResults;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.QMemberTeamDto;
+import study.querydsl.repository.support.InClauseSupport;
+
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMemberTeamView.memberTeamView;
+
+/**
+ * member_team_view 에서 조인 없이 회원을 검색한다.
+ *
+ * MemberRepositoryImpl 과 같은 조건/결과를 돌려주므로 엔드포인트마다 바꿔 쓸 수 있다. (querydsl.search-source)
+ */
+@Repository
+public class MemberTeamViewRepository implements MemberRepositoryCustom {
+
+    // username_lower 는 회원 테이블 값을 그대로 복사한다. (정규화는 Member.normalizeUsername 한 곳에서만)
+    private static final String MERGE =
+            "MERGE INTO member_team_view (member_id, username, username_lower, age, team_id, team_name) KEY (member_id) " +
+                    "SELECT m.member_id, m.username, m.username_lower, m.age, m.team_id, t.name " +
+                    "FROM member m LEFT JOIN team t ON t.team_id = m.team_id";
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public MemberTeamViewRepository(EntityManager entityManager, JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+        if (InClauseSupport.exceedsChunkSize(memberSearchCondition.normalizedUsernames(), memberSearchCondition.getTeamNames())) {
+            return InClauseSupport.fetchInChunks(
+                    memberSearchCondition.normalizedUsernames(),
+                    memberSearchCondition.getTeamNames(),
+                    (usernames, teamNames) -> search(memberSearchCondition.withInLists(usernames, teamNames))
+            );
+        }
+        return getMemberDtoQuery(memberSearchCondition)
+                .fetch();
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchSimple(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        QueryResults<MemberTeamDto> memberTeamDtoQueryResults = getMemberDtoQuery(memberSearchCondition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetchResults();
+
+        return new PageImpl<>(memberTeamDtoQueryResults.getResults(), pageable, memberTeamDtoQueryResults.getTotal());
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchComplex(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        List<MemberTeamDto> memberTeamDtos = getMemberDtoQuery(memberSearchCondition)
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        return PageableExecutionUtils
+                .getPage(
+                        memberTeamDtos,
+                        pageable,
+                        () -> getMemberDtoQuery(memberSearchCondition).fetchCount()
+                );
+    }
+
+    /**
+     * member 테이블 기준으로 전체를 다시 만든다.
+     */
+    public void rebuild() {
+        jdbcTemplate.update(MERGE);
+        jdbcTemplate.update("DELETE FROM member_team_view v WHERE NOT EXISTS (SELECT 1 FROM member m WHERE m.member_id = v.member_id)");
+    }
+
+    /**
+     * 주어진 회원들만 다시 만든다. (삭제된 회원은 빠진다)
+     */
+    public void refresh(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseSupport.chunk(memberIds, InClauseSupport.CHUNK_SIZE)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("memberIds", chunk);
+
+            namedParameterJdbcTemplate.update("DELETE FROM member_team_view WHERE member_id IN (:memberIds)", parameters);
+            namedParameterJdbcTemplate.update(MERGE + " WHERE m.member_id IN (:memberIds)", parameters);
+        }
+    }
+
+    /**
+     * 주어진 팀에 속한(속했던) 회원들만 다시 만든다. (팀 이름 변경, 팀 삭제)
+     */
+    public void refreshTeams(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseSupport.chunk(teamIds, InClauseSupport.CHUNK_SIZE)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("teamIds", chunk);
+
+            namedParameterJdbcTemplate.update(
+                    MERGE + " WHERE m.team_id IN (:teamIds) " +
+                            "OR m.member_id IN (SELECT v.member_id FROM member_team_view v WHERE v.team_id IN (:teamIds))",
+                    parameters
+            );
+        }
+    }
+
+    private JPAQuery<MemberTeamDto> getMemberDtoQuery(MemberSearchCondition memberSearchCondition) {
+        return jpaQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                memberTeamView.memberId,
+                                memberTeamView.username,
+                                memberTeamView.age,
+                                memberTeamView.teamId,
+                                memberTeamView.teamName
+                        )
+                )
+                .from(memberTeamView)
+                .where(
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
+                        isTeamnameEqual(memberSearchCondition.getTeamName()),
+                        isAgeGoeExist(memberSearchCondition.getAgeGoe()),
+                        isAgeLoeExist(memberSearchCondition.getAgeLoe())
+                );
+    }
+
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? memberTeamView.usernameLower.eq(Member.normalizeUsername(username)) : memberTeamView.username.eq(username);
+    }
+
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        return MemberTrigramPredicates.usernameContains(
+                memberTeamView.memberId, memberTeamView.username, memberTeamView.usernameLower, usernameContains, ignoreCase);
+    }
+
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(memberTeamView.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(memberTeamView.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(memberTeamView.teamName, teamNames);
+    }
+
+    private BooleanExpression isTeamnameEqual(String teamName) {
+        return hasText(teamName) ? memberTeamView.teamName.eq(teamName) : null;
+    }
+
+    private BooleanExpression isAgeGoeExist(Integer agGoe) {
+        return agGoe != null ? memberTeamView.age.goe(agGoe) : null;
+    }
+
+    private BooleanExpression isAgeLoeExist(Integer agLoe) {
+        return agLoe != null ? memberTeamView.age.loe(agLoe) : null;
+    }
+
+}
@@ -5,16 +5,20 @@ import com.querydsl.jpa.impl.JPAQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.repository.support.InClauseSupport;
 import study.querydsl.repository.support.Querydsl4RepositorySupport;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.springframework.util.StringUtils.hasText;
 import static study.querydsl.entity.QMember.member;
 import static study.querydsl.entity.QTeam.team;
 
+@Repository
 public class MemberTestRepository extends Querydsl4RepositorySupport {
 
 
@@ -33,11 +37,25 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
                 .fetch();
     }
 
+    /**
+     * 쓰기 트랜잭션 안에서 조회만 하는 페이지 > 쿼리 힌트로 읽기 전용 (스냅샷 없음, flush 때 비교하지 않음)
+     */
+    public List<Member> findPageReadOnly(Pageable pageable) {
+        return getQuerydsl().applyPagination(pageable, readOnly(selectFrom(member))).fetch();
+    }
+
+    public List<Member> findPage(Pageable pageable) {
+        return getQuerydsl().applyPagination(pageable, selectFrom(member)).fetch();
+    }
+
     public Page<Member> searchPageByApplyPage(MemberSearchCondition memberSearchCondition, Pageable pageable) {
         JPAQuery<Member> query = selectFrom(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -55,7 +73,10 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
                 .selectFrom(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -71,7 +92,10 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
                 .selectFrom(member)
                 .leftJoin(member.team, team)
                 .where(
-                        isUsernameEqual(memberSearchCondition.getUsername()),
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
                         isTeamnameEqual(memberSearchCondition.getTeamName()),
                         isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                         isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -81,7 +105,10 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
                         .from(member)
                         .leftJoin(member.team, team)
                         .where(
-                                isUsernameEqual(memberSearchCondition.getUsername()),
+                                isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                                isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                                isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                                isTeamNameIn(memberSearchCondition.getTeamNames()),
                                 isTeamnameEqual(memberSearchCondition.getTeamName()),
                                 isAgeGoeExist(memberSearchCondition.getAgeGoe()),
                                 isAgeLoeExist(memberSearchCondition.getAgeLoe())
@@ -89,14 +116,34 @@ public class MemberTestRepository extends Querydsl4RepositorySupport {
         );
     }
 
-    private BooleanExpression isUsernameEqual(String username) {
-        return hasText(username) ? member.username.eq(username) : null;
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? member.usernameLower.eq(Member.normalizeUsername(username)) : member.username.eq(username);
+    }
+
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        return MemberTrigramPredicates.usernameContains(usernameContains, ignoreCase);
     }
 
     private BooleanExpression isTeamnameEqual(String teamName) {
         return hasText(teamName) ? team.name.eq(teamName) : null;
     }
 
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(member.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(member.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(team.name, teamNames);
+    }
+
     private BooleanExpression isAgeGoeExist(Integer agGoe) {
         return agGoe != null ? member.age.goe(agGoe) : null;
     }
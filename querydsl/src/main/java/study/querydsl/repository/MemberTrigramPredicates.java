@@ -0,0 +1,69 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.jpa.JPAExpressions;
+import study.querydsl.entity.Member;
+
+import java.util.Set;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QMemberTrigram.memberTrigram;
+
+/**
+ * 회원명 부분 검색(contains) 조건
+ *
+ * like '%keyword%' 는 인덱스를 못 타서 전체를 훑는다.
+ *  1. 검색어의 트라이그램을 모두 가진 회원 ID 만 트라이그램 색인에서 고른다. (포스팅 교집합)
+ *  2. 후보만 like 로 다시 확인한다. (트라이그램이 모두 있어도 순서가 다를 수 있다)
+ *
+ * 검색어가 3글자보다 짧으면 트라이그램이 없으므로 like 로만 검색한다.
+ */
+public final class MemberTrigramPredicates {
+
+    private MemberTrigramPredicates() {
+    }
+
+    public static BooleanExpression usernameContains(String keyword) {
+        return usernameContains(keyword, false);
+    }
+
+    /**
+     * 색인은 소문자 회원명으로 만들어서 대소문자 구분 여부와 상관없이 후보를 고를 수 있다.
+     * 확인(like)만 ignoreCase 면 username_lower, 아니면 username 컬럼으로 한다.
+     */
+    public static BooleanExpression usernameContains(String keyword, boolean ignoreCase) {
+        return usernameContains(member.id, member.username, member.usernameLower, keyword, ignoreCase);
+    }
+
+    /**
+     * 회원 ID / 회원명 컬럼이 있는 다른 테이블(member_team_view 등)에서 검색할 때
+     */
+    public static BooleanExpression usernameContains(NumberPath<Long> memberId, StringPath username, StringPath usernameLower,
+                                                     String keyword, boolean ignoreCase) {
+        if (!hasText(keyword)) {
+            return null;
+        }
+
+        BooleanExpression verify = ignoreCase
+                ? usernameLower.contains(Member.normalizeUsername(keyword))
+                : username.contains(keyword);
+
+        Set<String> trigrams = MemberTrigramRepository.trigramsOf(keyword);
+        if (trigrams.isEmpty()) {
+            return verify;
+        }
+
+        return memberId.in(
+                JPAExpressions
+                        .select(memberTrigram.memberId)
+                        .from(memberTrigram)
+                        .where(memberTrigram.trigram.in(trigrams))
+                        .groupBy(memberTrigram.memberId)
+                        .having(memberTrigram.trigram.count().eq((long) trigrams.size()))
+        ).and(verify);
+    }
+
+}
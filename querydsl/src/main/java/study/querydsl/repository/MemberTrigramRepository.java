@@ -0,0 +1,89 @@
+package study.querydsl.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.support.InClauseSupport;
+import study.querydsl.repository.support.Trigrams;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * member_trigram 색인을 JDBC 로 다시 만든다.
+ * > 엔티티 변경은 flush 마다(MemberTrigramEventListener), 벌크 연산/JDBC 적재는 그 이후에 사용
+ */
+@Repository
+public class MemberTrigramRepository {
+
+    private static final String INSERT = "INSERT INTO member_trigram (trigram, member_id) VALUES (?, ?)";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public MemberTrigramRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * 색인과 검색어 모두 소문자로 정규화한 회원명에서 트라이그램을 뽑는다.
+     */
+    public static Set<String> trigramsOf(String username) {
+        return Trigrams.of(Member.normalizeUsername(username));
+    }
+
+    /**
+     * 전체 색인을 다시 만든다.
+     */
+    public void rebuild() {
+        jdbcTemplate.update("DELETE FROM member_trigram");
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        jdbcTemplate.query("SELECT member_id, username FROM member", resultSet -> {
+            long memberId = resultSet.getLong("member_id");
+            for (String trigram : trigramsOf(resultSet.getString("username"))) {
+                batch.add(new Object[]{trigram, memberId});
+            }
+            if (batch.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        }
+    }
+
+    /**
+     * 주어진 회원들의 색인만 다시 만든다. (삭제된 회원은 색인에서 빠진다)
+     */
+    public void refresh(Collection<Long> memberIds) {
+        if (memberIds.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseSupport.chunk(memberIds, InClauseSupport.CHUNK_SIZE)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("memberIds", chunk);
+
+            namedParameterJdbcTemplate.update("DELETE FROM member_trigram WHERE member_id IN (:memberIds)", parameters);
+
+            List<Object[]> batch = new ArrayList<>();
+            namedParameterJdbcTemplate.query("SELECT member_id, username FROM member WHERE member_id IN (:memberIds)", parameters, resultSet -> {
+                long memberId = resultSet.getLong("member_id");
+                for (String trigram : trigramsOf(resultSet.getString("username"))) {
+                    batch.add(new Object[]{trigram, memberId});
+                }
+            });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,418 @@
+package study.querydsl.repository;
+
+import com.querydsl.core.types.Order;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberCreateRequest;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.QMemberTeamDto;
+import study.querydsl.event.TableVersions;
+import study.querydsl.repository.support.InClauseSupport;
+import study.querydsl.shard.Shard;
+import study.querydsl.shard.ShardRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.util.StringUtils.hasText;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀 기준으로 샤딩된 회원 저장소
+ *
+ * 쓰기는 팀이 있는 샤드(team_id 로 찾는다) 하나로 보내고, 조회는 대상 샤드 전체에 동시에 보낸 뒤 합친다. (scatter-gather)
+ *  - teamName / teamNames 조건이 있으면 팀명으로 team_id 를 찾아 그 팀이 있는 샤드에만 보낸다.
+ *    > team 테이블만 읽는 가벼운 조회라서 팀명이 바뀌어도 회원이 있는 샤드를 찾는다.
+ *  - 페이징은 샤드마다 (offset + size) 개를 정렬해서 가져와 병합 정렬한 뒤 잘라낸다. > 뒤쪽 페이지일수록 비싸다.
+ *  - 전체 개수는 샤드별 count 를 더한다.
+ *
+ * usernameContains 는 샤드에 트라이그램 색인이 없으므로 like 로 검색한다.
+ * 샤드에는 TableVersionEventListener 가 붙지 않으므로 쓰기가 커밋되면 여기서 TableVersions 를 올린다. (ETag)
+ */
+@Repository
+@ConditionalOnProperty(name = "querydsl.shard.enabled", havingValue = "true")
+public class ShardedMemberRepository implements MemberRepositoryCustom {
+
+    private final ShardRegistry shardRegistry;
+    private final TableVersions tableVersions;
+
+    public ShardedMemberRepository(ShardRegistry shardRegistry, TableVersions tableVersions) {
+        this.shardRegistry = shardRegistry;
+        this.tableVersions = tableVersions;
+    }
+
+    public Team saveTeam(Team team) {
+        shardRegistry.forNewTeam().write(entityManager -> {
+            entityManager.persist(team);
+            return team;
+        });
+        tableVersions.bump(TableVersions.TEAM);
+        return team;
+    }
+
+    /**
+     * 회원은 팀이 있는 샤드에 저장한다.
+     */
+    public Member saveMember(Member member) {
+        shardOf(member.getTeam() == null ? null : member.getTeam().getId()).write(entityManager -> {
+            entityManager.persist(member);
+            return member;
+        });
+        tableVersions.bump(TableVersions.MEMBER);
+        return member;
+    }
+
+    /**
+     * 같은 샤드에 저장될 회원들을 그 샤드의 트랜잭션 하나로 저장한다. 팀은 조회하지 않고 FK 만 건다.
+     * > 여러 샤드에 걸친 요청은 groupByShard 로 먼저 나눈다. (샤드를 넘는 트랜잭션은 없다)
+     */
+    public void saveMembers(List<MemberCreateRequest> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        Shard shard = shardOf(requests.get(0).getTeamId());
+        for (MemberCreateRequest request : requests) {
+            if (shardOf(request.getTeamId()) != shard) {
+                throw new IllegalArgumentException("한 샤드의 회원만 저장할 수 있습니다. request = " + request);
+            }
+        }
+
+        shard.write(entityManager -> {
+            for (MemberCreateRequest request : requests) {
+                Member member = new Member(request.getUsername(), request.getAge());
+                if (request.getTeamId() != null) {
+                    member.setTeam(entityManager.getReference(Team.class, request.getTeamId()));
+                }
+                entityManager.persist(member);
+            }
+            entityManager.flush();
+            entityManager.clear();
+            return null;
+        });
+        tableVersions.bump(TableVersions.MEMBER);
+    }
+
+    /**
+     * 팀 ID 가 있는 샤드별로 나눈다. (샤드 순서, 팀이 없으면 0번 샤드)
+     */
+    public <T> Collection<List<T>> groupByShard(Collection<T> values, Function<T, Long> teamIdOf) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T value : values) {
+            groups.computeIfAbsent(shardOf(teamIdOf.apply(value)).getIndex(), index -> new ArrayList<>()).add(value);
+        }
+        return groups.values();
+    }
+
+    /**
+     * 팀이 없으면 0번 샤드
+     */
+    public Shard shardOf(Long teamId) {
+        return teamId == null ? shardRegistry.get(0) : shardRegistry.byTeamId(teamId);
+    }
+
+    /**
+     * 팀명 > 팀 ID (모든 샤드의 team 테이블에서 찾는다)
+     */
+    public List<Long> findTeamIds(Collection<String> teamNames) {
+        return shardRegistry.scatter(
+                        shardRegistry.getShards(),
+                        shard -> shard.read(entityManager -> new JPAQueryFactory(entityManager)
+                                .select(team.id)
+                                .from(team)
+                                .where(InClauseSupport.in(team.name, teamNames))
+                                .fetch())
+                )
+                .stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    public Optional<Member> findById(Long memberId) {
+        return shardRegistry.byId(memberId)
+                .read(entityManager -> Optional.ofNullable(entityManager.find(Member.class, memberId)));
+    }
+
+    @Override
+    public List<MemberTeamDto> search(MemberSearchCondition memberSearchCondition) {
+        Comparator<MemberTeamDto> comparator = Comparator.comparing(MemberTeamDto::getMemberId);
+        List<List<MemberTeamDto>> results = shardRegistry.scatter(
+                targetShards(memberSearchCondition),
+                shard -> shard.read(entityManager -> getMemberDtoQuery(new JPAQueryFactory(entityManager), memberSearchCondition)
+                        .orderBy(member.id.asc())
+                        .fetch())
+        );
+        return merge(results, comparator, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchSimple(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        return searchComplex(memberSearchCondition, pageable);
+    }
+
+    @Override
+    public Page<MemberTeamDto> searchComplex(MemberSearchCondition memberSearchCondition, Pageable pageable) {
+        List<OrderSpecifier<?>> orderSpecifiers = orderSpecifiers(pageable.getSort());
+        Comparator<MemberTeamDto> comparator = comparator(pageable.getSort());
+        long limit = pageable.getOffset() + pageable.getPageSize();
+
+        List<ShardPage> shardPages = shardRegistry.scatter(
+                targetShards(memberSearchCondition),
+                shard -> shard.read(entityManager -> {
+                    JPAQueryFactory jpaQueryFactory = new JPAQueryFactory(entityManager);
+                    List<MemberTeamDto> content = getMemberDtoQuery(jpaQueryFactory, memberSearchCondition)
+                            .orderBy(orderSpecifiers.toArray(new OrderSpecifier[0]))
+                            .limit(limit)
+                            .fetch();
+                    long total = content.size() < limit
+                            ? content.size()
+                            : getMemberDtoQuery(jpaQueryFactory, memberSearchCondition).fetchCount();
+                    return new ShardPage(content, total);
+                })
+        );
+
+        List<MemberTeamDto> content = merge(
+                shardPages.stream().map(shardPage -> shardPage.content).collect(Collectors.toList()),
+                comparator,
+                pageable.getOffset(),
+                pageable.getPageSize()
+        );
+        long total = shardPages.stream().mapToLong(shardPage -> shardPage.total).sum();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * 팀명 조건이 있으면 그 팀이 있는 샤드만, 없으면 전체 샤드
+     */
+    private List<Shard> targetShards(MemberSearchCondition memberSearchCondition) {
+        Set<String> teamNames = new LinkedHashSet<>();
+        if (hasText(memberSearchCondition.getTeamName())) {
+            teamNames.add(memberSearchCondition.getTeamName());
+        }
+        if (memberSearchCondition.getTeamNames() != null && !memberSearchCondition.getTeamNames().isEmpty()) {
+            if (!teamNames.isEmpty() && !memberSearchCondition.getTeamNames().contains(memberSearchCondition.getTeamName())) {
+                return new ArrayList<>(); // teamName 과 teamNames 가 겹치지 않으면 결과가 없다.
+            }
+            if (teamNames.isEmpty()) {
+                teamNames.addAll(memberSearchCondition.getTeamNames());
+            }
+        }
+
+        if (teamNames.isEmpty()) {
+            return shardRegistry.getShards();
+        }
+        return findTeamIds(teamNames).stream()
+                .map(shardRegistry::byTeamId)
+                .distinct()
+                .sorted(Comparator.comparingInt(Shard::getIndex))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 샤드별로 정렬된 결과를 병합 정렬해서 offset 부터 size 개를 꺼낸다.
+     */
+    private List<MemberTeamDto> merge(List<List<MemberTeamDto>> sortedResults, Comparator<MemberTeamDto> comparator, long offset, int size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.current(), b.current()));
+        for (List<MemberTeamDto> sortedResult : sortedResults) {
+            if (!sortedResult.isEmpty()) {
+                heads.add(new Cursor(sortedResult));
+            }
+        }
+
+        List<MemberTeamDto> merged = new ArrayList<>();
+        long skipped = 0;
+        while (!heads.isEmpty() && merged.size() < size) {
+            Cursor cursor = heads.poll();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                merged.add(cursor.current());
+            }
+            if (cursor.next()) {
+                heads.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private List<OrderSpecifier<?>> orderSpecifiers(Sort sort) {
+        List<OrderSpecifier<?>> orderSpecifiers = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orderSpecifiers.add(new OrderSpecifier<>(order.isAscending() ? Order.ASC : Order.DESC, sortPath(order.getProperty())));
+        }
+        // 샤드 간 병합 순서가 흔들리지 않도록 마지막은 항상 memberId
+        orderSpecifiers.add(member.id.asc());
+        return orderSpecifiers;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<MemberTeamDto, Comparable> sortKey = sortKey(order.getProperty());
+            Comparator<MemberTeamDto> next = (a, b) -> compareNullsFirst(sortKey.apply(a), sortKey.apply(b));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<MemberTeamDto> byMemberId = Comparator.comparing(MemberTeamDto::getMemberId);
+        return comparator == null ? byMemberId : comparator.thenComparing(byMemberId);
+    }
+
+    @SuppressWarnings("rawtypes")
+    private ComparableExpressionBase sortPath(String property) {
+        switch (property) {
+            case "memberId": return member.id;
+            case "username": return member.username;
+            case "age": return member.age;
+            case "teamId": return team.id;
+            case "teamName": return team.name;
+            default: throw new IllegalArgumentException("정렬할 수 없는 속성입니다. property = " + property);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private Function<MemberTeamDto, Comparable> sortKey(String property) {
+        switch (property) {
+            case "memberId": return MemberTeamDto::getMemberId;
+            case "username": return MemberTeamDto::getUsername;
+            case "age": return MemberTeamDto::getAge;
+            case "teamId": return MemberTeamDto::getTeamId;
+            case "teamName": return MemberTeamDto::getTeamName;
+            default: throw new IllegalArgumentException("정렬할 수 없는 속성입니다. property = " + property);
+        }
+    }
+
+    /**
+     * DB 정렬과 같게 null 을 앞에 둔다. (H2 오름차순 기본값)
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareNullsFirst(Comparable a, Comparable b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    private JPAQuery<MemberTeamDto> getMemberDtoQuery(JPAQueryFactory jpaQueryFactory, MemberSearchCondition memberSearchCondition) {
+        return jpaQueryFactory
+                .select(
+                        new QMemberTeamDto(
+                                member.id.as("memberId"),
+                                member.username,
+                                member.age,
+                                team.id.as("teamId"),
+                                team.name.as("teamName")
+                        )
+                )
+                .from(member)
+                .leftJoin(member.team, team)
+                .where(
+                        isUsernameEqual(memberSearchCondition.getUsername(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameContains(memberSearchCondition.getUsernameContains(), memberSearchCondition.isIgnoreCase()),
+                        isUsernameIn(memberSearchCondition.getUsernames(), memberSearchCondition.isIgnoreCase()),
+                        isTeamNameIn(memberSearchCondition.getTeamNames()),
+                        isTeamnameEqual(memberSearchCondition.getTeamName()),
+                        isAgeGoeExist(memberSearchCondition.getAgeGoe()),
+                        isAgeLoeExist(memberSearchCondition.getAgeLoe())
+                );
+    }
+
+    private BooleanExpression isUsernameEqual(String username, boolean ignoreCase) {
+        if (!hasText(username)) {
+            return null;
+        }
+        return ignoreCase ? member.usernameLower.eq(Member.normalizeUsername(username)) : member.username.eq(username);
+    }
+
+    private BooleanExpression isUsernameContains(String usernameContains, boolean ignoreCase) {
+        if (!hasText(usernameContains)) {
+            return null;
+        }
+        return ignoreCase
+                ? member.usernameLower.contains(Member.normalizeUsername(usernameContains))
+                : member.username.contains(usernameContains);
+    }
+
+    private BooleanExpression isUsernameIn(List<String> usernames, boolean ignoreCase) {
+        if (usernames == null || usernames.isEmpty()) {
+            return null;
+        }
+        return ignoreCase
+                ? InClauseSupport.in(member.usernameLower, usernames.stream().map(Member::normalizeUsername).collect(Collectors.toList()))
+                : InClauseSupport.in(member.username, usernames);
+    }
+
+    private BooleanExpression isTeamNameIn(List<String> teamNames) {
+        return InClauseSupport.in(team.name, teamNames);
+    }
+
+    private BooleanExpression isTeamnameEqual(String teamName) {
+        return hasText(teamName) ? team.name.eq(teamName) : null;
+    }
+
+    private BooleanExpression isAgeGoeExist(Integer agGoe) {
+        return agGoe != null ? member.age.goe(agGoe) : null;
+    }
+
+    private BooleanExpression isAgeLoeExist(Integer agLoe) {
+        return agLoe != null ? member.age.loe(agLoe) : null;
+    }
+
+    private static class ShardPage {
+
+        private final List<MemberTeamDto> content;
+        private final long total;
+
+        private ShardPage(List<MemberTeamDto> content, long total) {
+            this.content = content;
+            this.total = total;
+        }
+
+    }
+
+    private static class Cursor {
+
+        private final List<MemberTeamDto> results;
+        private int position = 0;
+
+        private Cursor(List<MemberTeamDto> results) {
+            this.results = results;
+        }
+
+        private MemberTeamDto current() {
+            return results.get(position);
+        }
+
+        private boolean next() {
+            return ++position < results.size();
+        }
+
+    }
+
+}
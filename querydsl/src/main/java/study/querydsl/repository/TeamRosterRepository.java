@@ -0,0 +1,45 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.dto.QTeamRosterDto;
+import study.querydsl.entity.dto.TeamRosterDto;
+import study.querydsl.repository.support.AggregateFunctions;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+@Repository
+public class TeamRosterRepository {
+
+    private final JPAQueryFactory jpaQueryFactory;
+
+    public TeamRosterRepository(EntityManager entityManager) {
+        this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+    }
+
+    /**
+     * 팀마다 한 행 > 회원명은 listagg 로 모은다. (회원이 없는 팀도 나온다)
+     * 팀 컬럼을 회원 수만큼 반복해서 읽지 않고, Team.members 지연 로딩(N+1)도 없다.
+     */
+    public List<TeamRosterDto> findAll() {
+        return jpaQueryFactory
+                .select(
+                        new QTeamRosterDto(
+                                team.id,
+                                team.name,
+                                member.count(),
+                                AggregateFunctions.listagg(member.username, member.username)
+                        )
+                )
+                .from(team)
+                .leftJoin(team.members, member)
+                .groupBy(team.id, team.name)
+                .orderBy(team.id.asc())
+                .fetch();
+    }
+
+}
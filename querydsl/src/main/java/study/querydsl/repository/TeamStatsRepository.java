@@ -0,0 +1,190 @@
+package study.querydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import study.querydsl.entity.dto.QTeamStatsDto;
+import study.querydsl.entity.dto.TeamStatsDto;
+import study.querydsl.repository.support.InClauseSupport;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static study.querydsl.entity.QTeam.team;
+import static study.querydsl.entity.QTeamStats.teamStats;
+
+@Repository
+public class TeamStatsRepository {
+
+    private static final String MERGE =
+            "MERGE INTO team_stats (team_id, member_count, age_sum, min_age, max_age) KEY (team_id) " +
+                    "SELECT t.team_id, COUNT(m.member_id), COALESCE(SUM(m.age), 0), MIN(m.age), MAX(m.age) " +
+                    "FROM team t LEFT JOIN member m ON m.team_id = t.team_id ";
+
+    private static final String DELETE_ORPHAN =
+            "DELETE FROM team_stats s WHERE NOT EXISTS (SELECT 1 FROM team t WHERE t.team_id = s.team_id)";
+
+    private static final String INSERT_EMPTY =
+            "INSERT INTO team_stats (team_id, member_count, age_sum, min_age, max_age) VALUES (?, 0, 0, NULL, NULL)";
+
+    private static final String DELETE = "DELETE FROM team_stats WHERE team_id = ?";
+
+    /**
+     * 회원 수/나이 합은 증감분을 더하고, 최소/최대값은 새로 들어온 나이로만 넓힌다.
+     */
+    private static final String APPLY_DELTA =
+            "UPDATE team_stats SET member_count = member_count + ?, age_sum = age_sum + ?, " +
+                    "min_age = CASE WHEN CAST(? AS INT) IS NULL THEN min_age WHEN min_age IS NULL OR min_age > ? THEN ? ELSE min_age END, " +
+                    "max_age = CASE WHEN CAST(? AS INT) IS NULL THEN max_age WHEN max_age IS NULL OR max_age < ? THEN ? ELSE max_age END " +
+                    "WHERE team_id = ?";
+
+    /**
+     * 빠진 나이가 현재 경계값일 때만 해당 팀 회원으로 최소/최대값을 다시 구한다.
+     */
+    private static final String RECALCULATE_BOUNDS =
+            "UPDATE team_stats SET " +
+                    "min_age = (SELECT MIN(m.age) FROM member m WHERE m.team_id = ?), " +
+                    "max_age = (SELECT MAX(m.age) FROM member m WHERE m.team_id = ?) " +
+                    "WHERE team_id = ? AND (min_age = ? OR max_age = ?)";
+
+
+    private final JPAQueryFactory jpaQueryFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public TeamStatsRepository(EntityManager entityManager, JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jpaQueryFactory = new JPAQueryFactory(entityManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * 회원 테이블을 훑지 않고 팀 수만큼의 통계 행만 읽는다.
+     */
+    public List<TeamStatsDto> findAll() {
+        return jpaQueryFactory
+                .select(
+                        new QTeamStatsDto(
+                                teamStats.teamId,
+                                team.name,
+                                teamStats.memberCount,
+                                teamStats.ageSum,
+                                teamStats.minAge,
+                                teamStats.maxAge
+                        )
+                )
+                .from(teamStats)
+                .join(team).on(team.id.eq(teamStats.teamId))
+                .orderBy(teamStats.teamId.asc())
+                .fetch();
+    }
+
+    /**
+     * member 테이블 기준으로 전체 통계를 다시 맞춘다.
+     * > 벌크 연산 이후, 그리고 이전 팀을 모르는 변경(detached update)을 대비해 주기적으로 실행한다.
+     */
+    public void reconcile() {
+        jdbcTemplate.update(MERGE + "GROUP BY t.team_id");
+        jdbcTemplate.update(DELETE_ORPHAN);
+    }
+
+    /**
+     * 주어진 팀들의 통계만 member 테이블 기준으로 다시 맞춘다. (삭제된 팀은 빠진다)
+     */
+    public void refresh(Collection<Long> teamIds) {
+        if (teamIds.isEmpty()) {
+            return;
+        }
+        for (List<Long> chunk : InClauseSupport.chunk(teamIds, InClauseSupport.CHUNK_SIZE)) {
+            MapSqlParameterSource parameters = new MapSqlParameterSource("teamIds", chunk);
+
+            namedParameterJdbcTemplate.update(MERGE + "WHERE t.team_id IN (:teamIds) GROUP BY t.team_id", parameters);
+            namedParameterJdbcTemplate.update(DELETE_ORPHAN + " AND s.team_id IN (:teamIds)", parameters);
+        }
+    }
+
+    /**
+     * 새 팀의 빈 통계 행을 만든다.
+     */
+    public void insertEmpty(Collection<Long> teamIds) {
+        jdbcTemplate.batchUpdate(INSERT_EMPTY, teamIds.stream().map(teamId -> new Object[]{teamId}).collect(Collectors.toList()));
+    }
+
+    public void delete(Collection<Long> teamIds) {
+        jdbcTemplate.batchUpdate(DELETE, teamIds.stream().map(teamId -> new Object[]{teamId}).collect(Collectors.toList()));
+    }
+
+    /**
+     * 팀별 증감분을 배치 하나로 더한다. member 테이블은 경계값이 빠진 팀만 읽는다.
+     * > 통계 행이 없는 팀(기능 추가 전에 만들어진 팀 등)은 member 테이블 기준으로 만든다.
+     */
+    public void apply(Collection<Delta> deltas) {
+        List<Delta> list = new ArrayList<>(deltas);
+        List<Object[]> args = new ArrayList<>(list.size());
+        for (Delta delta : list) {
+            args.add(new Object[]{
+                    delta.countDelta, delta.ageSumDelta,
+                    delta.addedMin, delta.addedMin, delta.addedMin,
+                    delta.addedMax, delta.addedMax, delta.addedMax,
+                    delta.teamId
+            });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(APPLY_DELTA, args);
+
+        List<Long> missing = new ArrayList<>();
+        List<Object[]> bounds = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            Delta delta = list.get(i);
+            if (updated[i] == 0) {
+                missing.add(delta.teamId);
+            } else if (delta.removedMin != null) {
+                bounds.add(new Object[]{delta.teamId, delta.teamId, delta.teamId, delta.removedMin, delta.removedMax});
+            }
+        }
+        if (!bounds.isEmpty()) {
+            jdbcTemplate.batchUpdate(RECALCULATE_BOUNDS, bounds);
+        }
+        if (!missing.isEmpty()) {
+            refresh(missing);
+        }
+    }
+
+    /**
+     * 한 팀의 통계 증감분 (flush 하나 동안 모은 값)
+     */
+    public static class Delta {
+
+        private final Long teamId;
+        private long countDelta;
+        private long ageSumDelta;
+        private Integer addedMin;
+        private Integer addedMax;
+        private Integer removedMin;
+        private Integer removedMax;
+
+        public Delta(Long teamId) {
+            this.teamId = teamId;
+        }
+
+        public void add(int age) {
+            countDelta++;
+            ageSumDelta += age;
+            addedMin = addedMin == null ? age : Math.min(addedMin, age);
+            addedMax = addedMax == null ? age : Math.max(addedMax, age);
+        }
+
+        public void remove(int age) {
+            countDelta--;
+            ageSumDelta -= age;
+            removedMin = removedMin == null ? age : Math.min(removedMin, age);
+            removedMax = removedMax == null ? age : Math.max(removedMax, age);
+        }
+
+    }
+
+}
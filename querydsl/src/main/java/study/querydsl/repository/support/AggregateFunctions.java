@@ -0,0 +1,42 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.StringExpression;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * SqlFunctionContributor 가 등록한 집계 함수를 Querydsl 템플릿으로 만든다.
+ *
+ * 그룹마다 여러 행을 문자열 하나로 모아서 1:N 조인 결과를 그룹당 한 행으로 읽는다.
+ * > 조인으로 그룹 컬럼을 행마다 반복해서 읽거나 컬렉션을 지연 로딩(N+1)하지 않는다.
+ */
+public final class AggregateFunctions {
+
+    /**
+     * 단위 구분자(US, 0x1F) > 회원명에 쉼표 등 보이는 문자는 다 들어올 수 있으므로 제어 문자로 나눈다.
+     */
+    public static final String LISTAGG_SEPARATOR = "\u001F";
+
+    private AggregateFunctions() {
+    }
+
+    /**
+     * listagg(value, LISTAGG_SEPARATOR) within group (order by order) > 그룹에 값이 없으면 null
+     */
+    public static StringExpression listagg(Expression<String> value, Expression<?> order) {
+        return Expressions.stringTemplate("listagg({0}, {1})", value, order);
+    }
+
+    public static List<String> split(String aggregated) {
+        if (aggregated == null || aggregated.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return Arrays.asList(aggregated.split(Pattern.quote(LISTAGG_SEPARATOR), -1));
+    }
+
+}
@@ -0,0 +1,94 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * IN 절 목록 조건 지원
+ *
+ * 하이버네이트는 IN 목록의 크기마다 다른 쿼리 플랜을 만든다. (in (?, ?) 와 in (?, ?, ?) 는 다른 쿼리)
+ *  1. 목록 크기를 2의 거듭제곱으로 맞춰서(마지막 값을 반복) 플랜을 재사용한다.
+ *  2. 목록이 CHUNK_SIZE 를 넘으면 나눠서 조회하고 결과를 합친다.
+ *
+ * 기본 EntityManagerFactory 는 hibernate.query.in_clause_parameter_padding 으로도 채우지만
+ * 그 설정이 없는 샤드 EntityManagerFactory 와 querydsl-sql(MemberSqlRepository) 도 같은 조건을 쓰므로 여기서 채운다.
+ * > MemberSearchInPaddingTest 는 하이버네이트 설정을 끄고 이 패딩만 확인한다.
+ */
+public final class InClauseSupport {
+
+    public static final int CHUNK_SIZE = 1000;
+
+    private InClauseSupport() {
+    }
+
+    /**
+     * 중복을 빼고 2의 거듭제곱 크기로 채운 IN 조건, 목록이 비어 있으면 null (조건 없음)
+     */
+    public static <T> BooleanExpression in(SimpleExpression<T> path, Collection<T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return path.in(pad(values));
+    }
+
+    public static <T> List<T> pad(Collection<T> values) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        int size = Integer.highestOneBit(distinct.size());
+        if (size < distinct.size()) {
+            size <<= 1;
+        }
+
+        T last = distinct.get(distinct.size() - 1);
+        while (distinct.size() < size) {
+            distinct.add(last);
+        }
+        return distinct;
+    }
+
+    /**
+     * 중복을 뺀 뒤 size 개씩 나눈다. 목록이 없으면 null 하나짜리 청크 (조건 없음)
+     */
+    public static <T> List<List<T>> chunk(Collection<T> values, int size) {
+        if (values == null || values.isEmpty()) {
+            return Collections.singletonList(null);
+        }
+
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(values));
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += size) {
+            chunks.add(distinct.subList(from, Math.min(from + size, distinct.size())));
+        }
+        return chunks;
+    }
+
+    public static boolean exceedsChunkSize(Collection<?>... values) {
+        for (Collection<?> value : values) {
+            if (value != null && value.size() > CHUNK_SIZE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 두 IN 목록을 청크로 나눠 모든 조합을 조회하고 결과를 이어 붙인다.
+     * > 청크끼리 값이 겹치지 않으므로 결과도 겹치지 않는다.
+     */
+    public static <A, B, R> List<R> fetchInChunks(Collection<A> first, Collection<B> second, BiFunction<List<A>, List<B>, List<R>> query) {
+        List<R> results = new ArrayList<>();
+        for (List<A> firstChunk : chunk(first, CHUNK_SIZE)) {
+            for (List<B> secondChunk : chunk(second, CHUNK_SIZE)) {
+                results.addAll(query.apply(firstChunk, secondChunk));
+            }
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,51 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * ID 목록으로 엔티티 여러 개를 한 번에 조회한다. (Session.byMultipleIds)
+ *
+ * findById 반복은 ID 마다 쿼리 한 번이다.
+ *  1. 영속성 컨텍스트에 이미 있는 엔티티는 쿼리 없이 꺼낸다.
+ *  2. 나머지는 BATCH_SIZE 개씩 IN 쿼리로 읽는다. (in_clause_parameter_padding 으로 플랜을 재사용한다)
+ *  3. 요청한 ID 순서대로 돌려준다. 없는 ID(삭제 포함)는 빠지고, 중복 ID 는 한 번만 들어간다.
+ *
+ * 공유 EntityManager 는 트랜잭션(또는 OSIV) 밖에서 Session 을 바로 닫으므로 트랜잭션 안에서 호출한다.
+ */
+public final class MultiLoadSupport {
+
+    public static final int BATCH_SIZE = InClauseSupport.CHUNK_SIZE;
+
+    private MultiLoadSupport() {
+    }
+
+    public static <T> List<T> findAllByIds(EntityManager entityManager, Class<T> entityClass, Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> loaded = entityManager.unwrap(Session.class)
+                .byMultipleIds(entityClass)
+                .withBatchSize(BATCH_SIZE)
+                .enableSessionCheck(true)
+                .enableReturnOfDeletedEntities(false)
+                .enableOrderedReturn(true)
+                .multiLoad(new ArrayList<>(new LinkedHashSet<>(ids)));
+
+        List<T> result = new ArrayList<>(loaded.size());
+        for (T entity : loaded) {
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,32 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import java.util.Optional;
+
+/**
+ * 자연 키(@NaturalId) 하나로 엔티티를 조회한다. (Session.bySimpleNaturalId)
+ *
+ * JPQL 조회는 매번 쿼리를 실행하지만 자연 키 조회는
+ *  1. 영속성 컨텍스트 > 2. 자연 키 캐시(@NaturalIdCache)로 ID 를 찾고 > 3. 엔티티 캐시(@Cache) 순서로 찾은 뒤
+ *  4. 그래도 없을 때만 DB 를 읽는다.
+ *
+ * 공유 EntityManager 는 트랜잭션(또는 OSIV) 밖에서 Session 을 바로 닫으므로 트랜잭션 안에서 호출한다.
+ */
+public final class NaturalIdSupport {
+
+    private NaturalIdSupport() {
+    }
+
+    public static <T> Optional<T> findBySimpleNaturalId(EntityManager entityManager, Class<T> entityClass, Object naturalId) {
+        if (naturalId == null) {
+            return Optional.empty();
+        }
+
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(entityClass)
+                .loadOptional(naturalId);
+    }
+
+}
@@ -5,7 +5,10 @@ import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.hibernate.annotations.QueryHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
@@ -14,10 +17,12 @@ import org.springframework.data.jpa.repository.support.Querydsl;
 import org.springframework.data.querydsl.SimpleEntityPathResolver;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 
 import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
+import javax.persistence.FlushModeType;
 import java.util.List;
 import java.util.function.Function;
 
@@ -34,13 +39,27 @@ public abstract class Querydsl4RepositorySupport {
     private Querydsl querydsl;
     private EntityManager entityManager;
     private JPAQueryFactory queryFactory;
+    private StatelessSessionSupport statelessSessionSupport;
 
     public Querydsl4RepositorySupport(Class<?> domainClass) {
         Assert.notNull(domainClass, "Domain class must not be null!");
         this.domainClass = domainClass;
     }
 
+    /**
+     * 엔티티 경로(PathBuilder) 생성 비용을 기동 타임라인(/actuator/startup)에 남긴다.
+     */
     @Autowired
+    public void setEntityManager(EntityManager entityManager, ApplicationStartup applicationStartup) {
+        StartupStep startupStep = applicationStartup.start("querydsl.repository.set-entity-manager")
+                .tag("domainClass", domainClass.getName());
+        try {
+            setEntityManager(entityManager);
+        } finally {
+            startupStep.end();
+        }
+    }
+
     public void setEntityManager(EntityManager entityManager) {
         Assert.notNull(entityManager, "EntityManager must not be null!");
         JpaEntityInformation entityInformation = JpaEntityInformationSupport.getEntityInformation(domainClass, entityManager);
@@ -49,6 +68,7 @@ public abstract class Querydsl4RepositorySupport {
         this.entityManager = entityManager;
         this.querydsl = new Querydsl(entityManager, new PathBuilder<>(path.getType(), path.getMetadata()));
         this.queryFactory = new JPAQueryFactory(entityManager);
+        this.statelessSessionSupport = new StatelessSessionSupport(entityManager);
     }
 
     @PostConstruct
@@ -71,25 +91,56 @@ public abstract class Querydsl4RepositorySupport {
 
     }
 
+    /**
+     * 영속성 컨텍스트 없이 대량 조회/저장 (StatelessSession)
+     */
+    protected StatelessSessionSupport getStatelessSessionSupport() {
+        return statelessSessionSupport;
+    }
+
     protected <T> JPAQuery<T> select(Expression<T> expr) {
-        return getQueryFactory().select(expr);
+        return readOnlyIfTransactionReadOnly(getQueryFactory().select(expr));
     }
 
     protected <T> JPAQuery<T> selectFrom(EntityPath<T> from) {
-        return getQueryFactory().selectFrom(from);
+        return readOnlyIfTransactionReadOnly(getQueryFactory().selectFrom(from));
     }
 
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery) {
-        JPAQuery jpaQuery = contentQuery.apply(getQueryFactory());
+        JPAQuery jpaQuery = readOnlyIfTransactionReadOnly(contentQuery.apply(getQueryFactory()));
         List<T> content = getQuerydsl().applyPagination(pageable, jpaQuery).fetch();
         return PageableExecutionUtils.getPage(content, pageable, jpaQuery::fetchCount);
     }
 
     protected <T> Page<T> applyPagination(Pageable pageable, Function<JPAQueryFactory, JPAQuery> contentQuery, Function<JPAQueryFactory, JPAQuery> countQuery) {
-        JPAQuery jpaContentQuery = contentQuery.apply(getQueryFactory());
+        JPAQuery jpaContentQuery = readOnlyIfTransactionReadOnly(contentQuery.apply(getQueryFactory()));
         List<T> content = getQuerydsl().applyPagination(pageable, jpaContentQuery).fetch();
-        JPAQuery countResult = countQuery.apply(getQueryFactory());
+        JPAQuery countResult = readOnlyIfTransactionReadOnly(countQuery.apply(getQueryFactory()));
         return PageableExecutionUtils.getPage(content, pageable, countResult::fetchCount);
     }
 
+    /**
+     * 읽기 전용 조회
+     *  - org.hibernate.readOnly : 조회한 엔티티의 스냅샷(변경 감지용 복사본)을 만들지 않고 flush 때 비교하지도 않는다.
+     *  - FlushModeType.COMMIT : 조회 전에 영속성 컨텍스트를 flush 하지 않는다.
+     *
+     * 쓰기 트랜잭션이나 OSIV 안에서 조회만 하는 쿼리에 직접 붙인다. (세션 기본값은 읽기/쓰기)
+     * ! 읽기 전용으로 올라온 엔티티는 바꿔도 DB 에 반영되지 않는다.
+     */
+    protected <T> JPAQuery<T> readOnly(JPAQuery<T> query) {
+        return query
+                .setHint(QueryHints.READ_ONLY, true)
+                .setFlushMode(FlushModeType.COMMIT);
+    }
+
+    /**
+     * @Transactional(readOnly = true) 안에서는 select/selectFrom/applyPagination 조회를 자동으로 읽기 전용으로 한다.
+     * > 쓰기 트랜잭션이나 트랜잭션 밖(OSIV)에서는 나중에 같은 엔티티를 고칠 수 있으므로 그대로 둔다.
+     * > JpaTransactionManager 는 읽기 전용 트랜잭션의 세션 기본값을 이미 읽기 전용(FlushMode.MANUAL)으로 바꾸므로
+     *   이 힌트는 세션을 건드리지 않는 트랜잭션 매니저(JTA 등)를 위한 것이다.
+     */
+    private <T> JPAQuery<T> readOnlyIfTransactionReadOnly(JPAQuery<T> query) {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? readOnly(query) : query;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package study.querydsl.repository.support;
+
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * JPQL 문법에 없는 DB 함수를 SQL 함수로 등록한다. (hibernate.metadata_builder_contributor)
+ *
+ * 문자열 집계 : WITHIN GROUP 절이 JPQL 문법에 없으므로 함수 하나로 만든다. Querydsl 에서는 AggregateFunctions 로 쓴다.
+ * > 윈도 함수가 필요하면 querydsl-sql 로 쓴다. (MemberSqlRepository)
+ */
+public class SqlFunctionContributor implements MetadataBuilderContributor {
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        // listagg(값, 정렬) > 구분자는 AggregateFunctions.LISTAGG_SEPARATOR
+        metadataBuilder.applySqlFunction("listagg",
+                new SQLFunctionTemplate(StandardBasicTypes.STRING,
+                        "listagg(?1, '" + AggregateFunctions.LISTAGG_SEPARATOR + "') within group (order by ?2)"));
+    }
+
+}
@@ -0,0 +1,144 @@
+package study.querydsl.repository.support;
+
+import com.querydsl.jpa.hibernate.HibernateQuery;
+import com.querydsl.jpa.hibernate.HibernateQueryFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 하이버네이트 StatelessSession 으로 대량 조회/저장한다.
+ *
+ * 영속성 컨텍스트(1차 캐시)도, 변경 감지용 스냅샷도 없다.
+ *  > 처리한 행은 바로 GC 대상이 되고, flush 때 엔티티를 하나씩 비교하는 비용이 없다.
+ *
+ * 대신 아래는 동작하지 않는다.
+ *  - 지연 로딩 (연관 엔티티가 필요하면 fetch join 으로 같이 읽는다)
+ *  - 엔티티 콜백(@PrePersist 등), 하이버네이트 이벤트 리스너 > 읽기 모델은 호출하는 쪽이 다시 맞춘다.
+ *  - 변경 감지 > 바꾼 엔티티는 update 로 직접 쓴다. (@Version 은 올리고 검사한다)
+ *
+ * 스프링 트랜잭션의 JDBC 커넥션 위에서 열기 때문에 JPA 와 같은 트랜잭션으로 커밋/롤백 된다.
+ */
+public class StatelessSessionSupport {
+
+    public static final int BATCH_SIZE = 500;
+    public static final int FETCH_SIZE = 1_000;
+
+    private final EntityManager entityManager;
+
+    public StatelessSessionSupport(EntityManager entityManager) {
+        Assert.notNull(entityManager, "EntityManager must not be null!");
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * 트랜잭션 커넥션으로 StatelessSession 을 열어 작업한다. 끝나면 남은 JDBC 배치를 실행한다.
+     */
+    public <R> R execute(Function<StatelessSession, R> work) {
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(),
+                "StatelessSession requires an active transaction");
+
+        Session session = entityManager.unwrap(Session.class);
+        Connection connection = session.doReturningWork(jdbcConnection -> jdbcConnection);
+        SessionFactory sessionFactory = session.getSessionFactory();
+
+        StatelessSession statelessSession = sessionFactory.withStatelessOptions()
+                .connection(connection)
+                .openStatelessSession();
+        try {
+            statelessSession.setJdbcBatchSize(BATCH_SIZE);
+            R result = work.apply(statelessSession);
+            executeBatch(statelessSession);
+            return result;
+        } finally {
+            statelessSession.close();
+        }
+    }
+
+    /**
+     * FETCH_SIZE 단위로 읽으면서 한 행씩 처리한다. 처리한 행 수를 돌려준다.
+     *
+     * ! 스크롤은 FactoryExpression(Projections, @QueryProjection)을 적용하지 않으므로 엔티티나 단일 컬럼만 조회한다.
+     */
+    public <T> long scroll(Function<HibernateQueryFactory, HibernateQuery<T>> query, Consumer<? super T> action) {
+        return execute(statelessSession -> scroll(statelessSession, query, action));
+    }
+
+    /**
+     * 엔티티를 BATCH_SIZE 단위 JDBC 배치로 넣는다. (식별자는 엔티티에 채워진다)
+     */
+    public <T> int insertAll(Collection<T> entities) {
+        flushPersistenceContext();
+        return execute(statelessSession -> {
+            for (T entity : entities) {
+                statelessSession.insert(entity);
+            }
+            return entities.size();
+        });
+    }
+
+    /**
+     * 엔티티를 BATCH_SIZE 단위 JDBC 배치로 고친다.
+     */
+    public <T> int updateAll(Collection<T> entities) {
+        flushPersistenceContext();
+        return execute(statelessSession -> {
+            for (T entity : entities) {
+                statelessSession.update(entity);
+            }
+            return entities.size();
+        });
+    }
+
+    /**
+     * 스크롤로 읽은 엔티티를 바꿔서 바로 배치로 고친다. > 전체를 메모리에 올리지 않는다.
+     */
+    public <T> long updateEach(Function<HibernateQueryFactory, HibernateQuery<T>> query, Consumer<? super T> change) {
+        flushPersistenceContext();
+        return execute(statelessSession -> scroll(statelessSession, query, entity -> {
+            change.accept(entity);
+            statelessSession.update(entity);
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> long scroll(StatelessSession statelessSession, Function<HibernateQueryFactory, HibernateQuery<T>> query,
+                            Consumer<? super T> action) {
+        ScrollableResults results = query.apply(new HibernateQueryFactory(statelessSession))
+                .setFetchSize(FETCH_SIZE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            long count = 0;
+            while (results.next()) {
+                action.accept((T) results.get(0));
+                count++;
+            }
+            return count;
+        } finally {
+            results.close();
+        }
+    }
+
+    /**
+     * 같은 행을 영속성 컨텍스트에서 먼저 바꿔 뒀다면 StatelessSession 쓰기보다 앞서 반영한다.
+     */
+    private void flushPersistenceContext() {
+        entityManager.flush();
+    }
+
+    private void executeBatch(StatelessSession statelessSession) {
+        ((SharedSessionContractImplementor) statelessSession).getJdbcCoordinator().executeBatch();
+    }
+
+}
@@ -0,0 +1,31 @@
+package study.querydsl.repository.support;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 문자열을 3글자 단위로 잘라 중복 없는 트라이그램 집합을 만든다.
+ *
+ * ex) "member1" > [mem, emb, mbe, ber, er1]
+ */
+public final class Trigrams {
+
+    public static final int SIZE = 3;
+
+    private Trigrams() {
+    }
+
+    public static Set<String> of(String text) {
+        if (text == null || text.length() < SIZE) {
+            return Collections.emptySet();
+        }
+
+        Set<String> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + SIZE <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + SIZE));
+        }
+        return trigrams;
+    }
+
+}
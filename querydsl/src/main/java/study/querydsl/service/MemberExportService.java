@@ -0,0 +1,353 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.sql.SQLQueryFactory;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+import study.querydsl.entity.dto.MemberExportManifest;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.QMemberTeamDto;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static study.querydsl.sql.SMember.member;
+import static study.querydsl.sql.STeam.team;
+
+/**
+ * 회원 전체 내보내기 (분석용)
+ *
+ *  1. member_id 범위를 파티션 수만큼 나눈다.
+ *  2. 파티션마다 스레드 하나가 자기 커넥션/읽기 전용 트랜잭션으로 구간을 읽는다. (querydsl-sql iterate > 한 행씩)
+ *  3. 파티션마다 gzip 파일 하나로 바로 쓴다. > 전체를 메모리에 올리지 않는다.
+ *  4. 모두 끝나면 manifest.json 을 쓴다. (manifest 가 없는 디렉토리는 실패한 내보내기)
+ *
+ * ! 파티션은 각자 트랜잭션이므로 내보내는 중에 바뀐 회원은 파티션마다 시점이 다를 수 있다.
+ * ! 파티션마다 커넥션 하나를 끝날 때까지 잡고 있으므로 파티션 수는 커넥션 풀 크기 - 1 로 줄인다. (다른 요청 몫으로 하나는 남긴다)
+ */
+@Slf4j
+@Service
+public class MemberExportService {
+
+    public static final String MANIFEST = "manifest.json";
+
+    private static final DateTimeFormatter EXPORT_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private static final int DEFAULT_POOL_SIZE = 10; // hikari 기본값
+
+    private final SQLQueryFactory sqlQueryFactory;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final MemberExportProperties memberExportProperties;
+    private final DataSource dataSource;
+
+    public MemberExportService(SQLQueryFactory sqlQueryFactory,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager,
+                               MemberExportProperties memberExportProperties,
+                               DataSource dataSource) {
+        this.sqlQueryFactory = sqlQueryFactory;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.memberExportProperties = memberExportProperties;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 한 번에 돌릴 수 있는 파티션 수 > 커넥션 풀 크기 - 1
+     */
+    public int getMaxPartitions() {
+        HikariConfigMXBean hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        int poolSize = hikari != null ? hikari.getMaximumPoolSize() : DEFAULT_POOL_SIZE;
+        return Math.max(1, poolSize - 1);
+    }
+
+    /**
+     * 파티션 수/형식이 null 이면 querydsl.export 설정값을 쓴다.
+     */
+    public MemberExportManifest export(Integer partitions, Format format) {
+        return export(
+                Paths.get(memberExportProperties.getDirectory()),
+                partitions != null ? partitions : memberExportProperties.getPartitions(),
+                format != null ? format : memberExportProperties.getFormat()
+        );
+    }
+
+    public MemberExportManifest export(Path baseDirectory, int requestedPartitions, Format format) {
+        Assert.isTrue(requestedPartitions > 0, "Partitions must be positive!");
+        int partitions = Math.min(requestedPartitions, getMaxPartitions());
+        if (partitions < requestedPartitions) {
+            log.warn("[export] partitions {} > {} (connection pool size - 1)", requestedPartitions, partitions);
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime createdAt = LocalDateTime.now();
+        String exportId = EXPORT_ID.format(createdAt);
+        Path directory = baseDirectory.resolve(exportId).toAbsolutePath();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<long[]> ranges = readOnlyTransaction.execute(status -> ranges(partitions));
+        List<MemberExportManifest.PartitionFile> files = exportPartitions(directory, ranges, format);
+
+        long rows = files.stream().mapToLong(MemberExportManifest.PartitionFile::getRows).sum();
+        long elapsedMs = System.currentTimeMillis() - start;
+        MemberExportManifest manifest = new MemberExportManifest(
+                exportId,
+                format.name().toLowerCase(Locale.ROOT),
+                "gzip",
+                createdAt,
+                rows,
+                elapsedMs,
+                elapsedMs == 0 ? rows : rows * 1000.0 / elapsedMs,
+                files
+        );
+
+        // manifest 는 마지막에 쓴다 > 중간에 실패한 내보내기는 manifest 가 없다.
+        try {
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve(MANIFEST).toFile(), manifest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("[export] {} rows, {} partitions, {}ms > {}", rows, files.size(), elapsedMs, directory);
+        return manifest;
+    }
+
+    /**
+     * member_id [min, max] 를 partitions 개의 겹치지 않는 구간으로 나눈다. (회원이 없으면 빈 목록)
+     */
+    private List<long[]> ranges(int partitions) {
+        Tuple range = sqlQueryFactory
+                .select(member.memberId.min(), member.memberId.max())
+                .from(member)
+                .fetchOne();
+        List<long[]> ranges = new ArrayList<>();
+        Long min = range == null ? null : range.get(member.memberId.min());
+        Long max = range == null ? null : range.get(member.memberId.max());
+        if (min == null || max == null) {
+            return ranges;
+        }
+
+        long width = Math.max(1, (max - min + 1 + partitions - 1) / partitions);
+        for (long from = min; from <= max; from += width) {
+            ranges.add(new long[]{from, Math.min(max, from + width - 1)});
+        }
+        return ranges;
+    }
+
+    private List<MemberExportManifest.PartitionFile> exportPartitions(Path directory, List<long[]> ranges, Format format) {
+        if (ranges.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(ranges.size(), runnable -> {
+            Thread thread = new Thread(runnable, "member-export-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<MemberExportManifest.PartitionFile>> futures = new ArrayList<>();
+            for (int partitionNo = 0; partitionNo < ranges.size(); partitionNo++) {
+                int no = partitionNo;
+                long[] range = ranges.get(partitionNo);
+                futures.add(executor.submit(() -> readOnlyTransaction.execute(status ->
+                        exportPartition(directory, no, range[0], range[1], format))));
+            }
+
+            List<MemberExportManifest.PartitionFile> files = new ArrayList<>();
+            for (Future<MemberExportManifest.PartitionFile> future : futures) {
+                files.add(future.get());
+            }
+            return files;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause()
+                    : new IllegalStateException("회원 내보내기가 실패했습니다.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 내보내기가 중단되었습니다.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private MemberExportManifest.PartitionFile exportPartition(Path directory, int partitionNo, long fromId, long toId, Format format) {
+        long start = System.currentTimeMillis();
+        String fileName = String.format("members-%04d.%s.gz", partitionNo, format.getExtension());
+        Path file = directory.resolve(fileName);
+
+        long rows = 0;
+        CloseableIterator<MemberTeamDto> iterator = sqlQueryFactory
+                .select(new QMemberTeamDto(member.memberId, member.username, member.age, team.teamId, team.name))
+                .from(member)
+                .leftJoin(team).on(member.teamId.eq(team.teamId))
+                .where(member.memberId.between(fromId, toId))
+                .orderBy(member.memberId.asc())
+                .iterate();
+        try (OutputStream out = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out, objectMapper);
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                rows++;
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            iterator.close();
+        }
+
+        try {
+            return new MemberExportManifest.PartitionFile(partitionNo, fileName, fromId, toId, rows, Files.size(file),
+                    System.currentTimeMillis() - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Getter
+    public enum Format {
+        CSV("csv"), NDJSON("ndjson");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    private interface RowWriter {
+
+        void write(MemberTeamDto row) throws IOException;
+
+        void flush() throws IOException;
+
+    }
+
+    /**
+     * 스프링 ObjectMapper (MemberTeamDtoSerializer) 로 한 줄에 한 회원
+     */
+    private static class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter objectWriter;
+
+        NdjsonRowWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            // 행마다 flush 하면 gzip 스트림까지 매번 내려간다.
+            this.objectWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        public void write(MemberTeamDto row) throws IOException {
+            objectWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+    }
+
+    /**
+     * RFC 4180 > 쉼표, 따옴표, 줄바꿈이 있는 값만 따옴표로 감싼다.
+     */
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write("member_id,username,age,team_id,team_name\n");
+        }
+
+        @Override
+        public void write(MemberTeamDto row) throws IOException {
+            writer.write(String.valueOf(row.getMemberId()));
+            writer.write(',');
+            writer.write(escape(row.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getAge()));
+            writer.write(',');
+            writer.write(row.getTeamId() == null ? "" : String.valueOf(row.getTeamId()));
+            writer.write(',');
+            writer.write(escape(row.getTeamName()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private String escape(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.export")
+    static class MemberExportProperties {
+
+        private String directory = "./build/export";
+        private int partitions = 4;
+        private Format format = Format.NDJSON;
+
+    }
+
+}
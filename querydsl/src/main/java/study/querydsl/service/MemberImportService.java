@@ -0,0 +1,340 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.dto.MemberImportResult;
+import study.querydsl.event.MemberBulkChangedEvent;
+import study.querydsl.event.TableVersions;
+import study.querydsl.shard.Shard;
+import study.querydsl.shard.ShardRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import static org.springframework.util.StringUtils.hasText;
+
+/**
+ * 회원 JSON 파일 적재
+ *
+ * [{"username": "member1", "age": 10, "teamName": "teamA"}, ...]
+ *
+ *  1. JsonParser 로 한 행씩 읽는다. > 파일 전체를 메모리에 올리지 않는다.
+ *  2. 팀명은 시작할 때 읽어 둔 맵으로 찾고, 없는 팀은 바로 만든다.
+ *  3. 회원은 BATCH_SIZE 개씩 MERGE (username 기준) 로 JDBC 배치 저장한다. > 같은 파일을 다시 넣어도 회원이 늘어나지 않는다.
+ *  4. 형식이 잘못된 행은 건너뛰고, 배치 저장이 실패하면 그 배치만 한 행씩 다시 저장한다.
+ *  5. 엔티티 리스너를 거치지 않으므로 배치마다 같은 트랜잭션 안에서 MemberBulkChangedEvent 로 읽기 모델을 다시 맞춘다.
+ *     > 중간에 실패(입력 스트림 오류, 클라이언트 연결 끊김)해도 커밋된 배치의 읽기 모델은 어긋나지 않는다.
+ *
+ * 샤딩을 켜면(querydsl.shard.enabled) 팀과 회원을 샤드에 저장한다.
+ *  - 팀명은 모든 샤드의 team 테이블에서 찾고, 없는 팀은 ShardRegistry.forNewTeam 샤드에 만든다.
+ *  - 배치를 팀이 있는 샤드별로 나눠 샤드마다 MERGE 한 뒤, 다른 샤드에 남은 같은 username 회원(팀을 옮긴 회원)을 지운다.
+ *    ! 샤드를 넘는 트랜잭션은 없다. 지우기 전에 실패하면 다른 샤드에 이전 회원이 남으므로 같은 파일을 다시 넣어 맞춘다.
+ *  - 읽기 모델은 기본 DB 에만 있으므로 MemberBulkChangedEvent 대신 TableVersions 만 올린다.
+ *
+ * ! username 은 유일하지 않다. (유니크 제약은 unique-username 모드의 unique_username 에만 있다)
+ *   파일의 회원을 가리킬 키가 username 뿐이라서 같은 이름의 회원이 이미 여럿이면 모두 같은 값으로 바뀐다.
+ *   > 같은 파일을 다시 넣어도 회원은 늘지 않지만, 이름이 겹치는 기존 회원들을 하나로 구분해 주지는 않는다.
+ */
+@Slf4j
+@Service
+public class MemberImportService {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_USERNAME_LENGTH = 255;
+
+    private static final String MERGE =
+            "MERGE INTO member m " +
+                    "USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR), CAST(? AS INT), CAST(? AS BIGINT))) " +
+                    "s (username, username_lower, age, team_id) ON m.username = s.username " +
+                    "WHEN MATCHED THEN UPDATE SET username_lower = s.username_lower, age = s.age, team_id = s.team_id, version = m.version + 1 " +
+                    "WHEN NOT MATCHED THEN INSERT (member_id, username, username_lower, age, team_id, version) " +
+                    "VALUES (NEXT VALUE FOR hibernate_sequence, s.username, s.username_lower, s.age, s.team_id, 0)";
+
+    private static final String INSERT_TEAM = "INSERT INTO team (team_id, name, version) VALUES (?, ?, 0)";
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ShardRegistry> shardRegistry;
+    private final TableVersions tableVersions;
+
+    public MemberImportService(ObjectMapper objectMapper,
+                               JdbcTemplate jdbcTemplate,
+                               NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectProvider<ShardRegistry> shardRegistry,
+                               TableVersions tableVersions) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.shardRegistry = shardRegistry;
+        this.tableVersions = tableVersions;
+    }
+
+    public MemberImportResult importMembers(InputStream inputStream) throws IOException {
+        long start = System.currentTimeMillis();
+        MemberImportResult result = new MemberImportResult();
+        ShardRegistry shards = shardRegistry.getIfAvailable();
+        Map<String, Long> teamIds = loadTeamIds(shards);
+        List<ImportRow> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                result.abort("회원 배열이 아닙니다.");
+            } else {
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    long row = result.getRead();
+                    result.read();
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        result.skip(row, "객체가 아닙니다.");
+                        continue;
+                    }
+
+                    ImportRow importRow = readRow(parser, row, result);
+                    if (importRow == null) {
+                        continue;
+                    }
+                    if (importRow.teamName != null) {
+                        importRow.teamId = teamIds.computeIfAbsent(importRow.teamName, teamName -> createTeam(teamName, shards, result));
+                    }
+
+                    batch.add(importRow);
+                    if (batch.size() == BATCH_SIZE) {
+                        write(batch, shards, result);
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // 여기까지 읽은 행은 저장한다.
+            result.abort("JSON 형식 오류 : " + e.getOriginalMessage());
+        }
+        write(batch, shards, result);
+
+        result.finish(System.currentTimeMillis() - start);
+        log.info("[member-import] {}", result);
+        return result;
+    }
+
+    /**
+     * 행 하나(객체)를 끝까지 읽는다. 잘못된 값이 있어도 객체 끝까지 읽고 null 을 돌려준다.
+     */
+    private ImportRow readRow(JsonParser parser, long row, MemberImportResult result) throws IOException {
+        ImportRow importRow = new ImportRow(row);
+        String error = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            switch (field) {
+                case "username":
+                    if (value == JsonToken.VALUE_STRING) {
+                        importRow.username = parser.getText();
+                    }
+                    break;
+                case "age":
+                    if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                        importRow.age = parser.getIntValue();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        error = "age 는 정수여야 합니다.";
+                    }
+                    break;
+                case "teamName":
+                    if (value == JsonToken.VALUE_STRING) {
+                        importRow.teamName = hasText(parser.getText()) ? parser.getText() : null;
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        error = "teamName 은 문자열이어야 합니다.";
+                    }
+                    break;
+                default:
+                    break;
+            }
+            parser.skipChildren(); // 값이 객체/배열이면 건너뛴다.
+        }
+
+        if (error == null && !hasText(importRow.username)) {
+            error = "username 이 없습니다.";
+        }
+        if (error == null && importRow.username.length() > MAX_USERNAME_LENGTH) {
+            error = "username 이 너무 깁니다.";
+        }
+        if (error == null && importRow.age == null) {
+            error = "age 가 없습니다.";
+        }
+        if (error == null && importRow.age < 0) {
+            error = "age 는 0 이상이어야 합니다.";
+        }
+
+        if (error != null) {
+            result.skip(row, error);
+            return null;
+        }
+        return importRow;
+    }
+
+    private void write(List<ImportRow> batch, ShardRegistry shards, MemberImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (shards == null) {
+                write(batch, this::merge, result);
+                return;
+            }
+
+            Map<Integer, List<ImportRow>> rowsByShard = new TreeMap<>();
+            for (ImportRow importRow : batch) {
+                int index = importRow.teamId == null ? 0 : Shard.indexOf(importRow.teamId);
+                rowsByShard.computeIfAbsent(index, key -> new ArrayList<>()).add(importRow);
+            }
+            rowsByShard.forEach((index, rows) -> write(rows, shardRows -> merge(shards, shards.get(index), shardRows), result));
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void write(List<ImportRow> rows, Consumer<List<ImportRow>> merger, MemberImportResult result) {
+        try {
+            merger.accept(rows);
+            result.written(rows.size());
+        } catch (DataAccessException e) {
+            log.warn("[member-import] batch failed, retrying one by one", e);
+            for (ImportRow importRow : rows) {
+                try {
+                    merger.accept(Collections.singletonList(importRow));
+                    result.written(1);
+                } catch (DataAccessException rowException) {
+                    result.fail(importRow.row, rowException.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * 한 트랜잭션으로 저장하고 같은 트랜잭션 안에서 저장한 회원과 그 회원들의 이전/이후 팀 읽기 모델을 다시 맞춘다.
+     */
+    private void merge(List<ImportRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> usernames = new LinkedHashSet<>();
+            rows.forEach(importRow -> usernames.add(importRow.username));
+            MapSqlParameterSource parameters = new MapSqlParameterSource("usernames", usernames);
+
+            Set<Long> teamIds = new LinkedHashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT DISTINCT team_id FROM member WHERE username IN (:usernames) AND team_id IS NOT NULL", parameters, Long.class));
+            jdbcTemplate.batchUpdate(MERGE, toArgs(rows));
+            rows.stream().filter(importRow -> importRow.teamId != null).forEach(importRow -> teamIds.add(importRow.teamId));
+
+            List<Long> memberIds = namedParameterJdbcTemplate.queryForList(
+                    "SELECT member_id FROM member WHERE username IN (:usernames)", parameters, Long.class);
+            eventPublisher.publishEvent(MemberBulkChangedEvent.of(memberIds, teamIds));
+        });
+    }
+
+    /**
+     * 샤드에 저장한다. 회원이 다른 샤드의 팀으로 옮겼으면 그 샤드의 이전 회원을 지운다.
+     */
+    private void merge(ShardRegistry shards, Shard shard, List<ImportRow> rows) {
+        shard.getTransactionTemplate().executeWithoutResult(status -> shard.getJdbcTemplate().batchUpdate(MERGE, toArgs(rows)));
+
+        Set<String> usernames = new LinkedHashSet<>();
+        rows.forEach(importRow -> usernames.add(importRow.username));
+        MapSqlParameterSource parameters = new MapSqlParameterSource("usernames", usernames);
+        for (Shard other : shards.getShards()) {
+            if (other != shard) {
+                other.getTransactionTemplate().executeWithoutResult(status -> new NamedParameterJdbcTemplate(other.getJdbcTemplate())
+                        .update("DELETE FROM member WHERE username IN (:usernames)", parameters));
+            }
+        }
+        tableVersions.bump(TableVersions.MEMBER);
+    }
+
+    private Map<String, Long> loadTeamIds(ShardRegistry shards) {
+        Map<String, Long> teamIds = new HashMap<>();
+        List<JdbcTemplate> sources = new ArrayList<>();
+        if (shards == null) {
+            sources.add(jdbcTemplate);
+        } else {
+            shards.getShards().forEach(shard -> sources.add(shard.getJdbcTemplate()));
+        }
+        for (JdbcTemplate source : sources) {
+            source.query("SELECT team_id, name FROM team ORDER BY team_id",
+                    resultSet -> {
+                        teamIds.putIfAbsent(resultSet.getString("name"), resultSet.getLong("team_id"));
+                    });
+        }
+        return teamIds;
+    }
+
+    private Long createTeam(String teamName, ShardRegistry shards, MemberImportResult result) {
+        JdbcTemplate target = shards == null ? jdbcTemplate : shards.forNewTeam().getJdbcTemplate();
+        Long teamId = target.queryForObject("SELECT NEXT VALUE FOR hibernate_sequence", Long.class);
+        target.update(INSERT_TEAM, teamId, teamName);
+        if (shards != null) {
+            tableVersions.bump(TableVersions.TEAM);
+        }
+        result.teamCreated();
+        return teamId;
+    }
+
+    private List<Object[]> toArgs(List<ImportRow> batch) {
+        List<Object[]> args = new ArrayList<>(batch.size());
+        for (ImportRow importRow : batch) {
+            args.add(toArgs(importRow));
+        }
+        return args;
+    }
+
+    private Object[] toArgs(ImportRow importRow) {
+        return new Object[]{
+                importRow.username,
+                Member.normalizeUsername(importRow.username),
+                importRow.age,
+                importRow.teamId
+        };
+    }
+
+    private static class ImportRow {
+
+        private final long row;
+        private String username;
+        private Integer age;
+        private String teamName;
+        private Long teamId;
+
+        private ImportRow(long row) {
+            this.row = row;
+        }
+
+    }
+
+}
@@ -0,0 +1,187 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import study.querydsl.entity.dto.MemberCreateRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 생성 write-behind 큐
+ *
+ *  1. 요청은 크기가 정해진 큐에 넣기만 하고 바로 응답한다. 큐가 가득 차면 받지 않는다. (429)
+ *  2. 백그라운드 스레드가 batchSize 개가 모이거나 flushIntervalMs 가 지나면 한 트랜잭션으로 저장한다.
+ *  3. 종료할 때는 새 요청을 막고 큐에 남은 회원을 모두 저장한 뒤 끝낸다. (DB 커넥션이 닫히기 전)
+ *
+ * ! 프로세스가 비정상 종료되면 큐에 남은 회원은 사라진다. (메모리 버퍼)
+ *
+ * 메트릭
+ *  - member.ingest.queue.depth : 큐에 쌓인 회원 수
+ *  - member.ingest.flush : 배치 저장 시간
+ *  - member.ingest.written / member.ingest.rejected : 저장한 / 큐가 가득 차서 거절한 회원 수
+ */
+@Slf4j
+@Component
+public class MemberIngestionQueue implements SmartLifecycle {
+
+    private final BlockingQueue<MemberCreateRequest> queue;
+    private final MemberIngestionWriter memberIngestionWriter;
+    private final MemberIngestionProperties memberIngestionProperties;
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter rejectedCounter;
+
+    private volatile boolean running = false;
+    private Thread writerThread;
+
+    public MemberIngestionQueue(MemberIngestionWriter memberIngestionWriter,
+                                MemberIngestionProperties memberIngestionProperties,
+                                MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(memberIngestionProperties.getCapacity());
+        this.memberIngestionWriter = memberIngestionWriter;
+        this.memberIngestionProperties = memberIngestionProperties;
+
+        Gauge.builder("member.ingest.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+        this.flushTimer = Timer.builder("member.ingest.flush").register(meterRegistry);
+        this.writtenCounter = meterRegistry.counter("member.ingest.written");
+        this.rejectedCounter = meterRegistry.counter("member.ingest.rejected");
+    }
+
+    /**
+     * @return 큐가 가득 차서 넣지 못하면 false
+     */
+    public boolean offer(MemberCreateRequest request) {
+        boolean accepted = queue.offer(request);
+        if (!accepted) {
+            rejectedCounter.increment();
+        }
+        return accepted;
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::writeLoop, "member-ingest");
+        writerThread.start();
+    }
+
+    /**
+     * 웹 서버(WebServerStartStopLifecycle)보다 먼저 시작하고 나중에 멈춘다.
+     * > 요청을 더 받지 않는 상태에서 남은 회원을 저장한다.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 2;
+    }
+
+    /**
+     * 쓰기 중인 트랜잭션을 끊지 않도록 인터럽트하지 않고, 쓰기 스레드가 큐를 비우고 끝날 때까지 기다린다.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            writerThread.join(memberIngestionProperties.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.warn("[member-ingest] {} members were not written before shutdown", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void writeLoop() {
+        List<MemberCreateRequest> batch = new ArrayList<>(memberIngestionProperties.getBatchSize());
+        while (running) {
+            try {
+                fill(batch);
+            } catch (InterruptedException e) {
+                // 인터럽트 플래그를 다시 세우면 남은 회원 저장(JDBC)이 실패하므로 종료 신호로만 쓴다.
+                running = false;
+            }
+            flush(batch);
+        }
+
+        // 종료 중에는 새 요청이 없으므로 큐가 빌 때까지 저장한다.
+        while (!queue.isEmpty() || !batch.isEmpty()) {
+            queue.drainTo(batch, memberIngestionProperties.getBatchSize() - batch.size());
+            flush(batch);
+        }
+    }
+
+    /**
+     * 첫 회원을 기다린 뒤, batchSize 가 차거나 flushIntervalMs 가 지날 때까지 모은다.
+     * > 첫 회원도 flushIntervalMs 까지만 기다려서 running 을 다시 확인한다.
+     */
+    private void fill(List<MemberCreateRequest> batch) throws InterruptedException {
+        MemberCreateRequest first = queue.poll(memberIngestionProperties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(memberIngestionProperties.getFlushIntervalMs());
+        while (batch.size() < memberIngestionProperties.getBatchSize()) {
+            queue.drainTo(batch, memberIngestionProperties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= memberIngestionProperties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            MemberCreateRequest next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<MemberCreateRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            int written = flushTimer.record(() -> memberIngestionWriter.write(batch));
+            writtenCounter.increment(written);
+        } catch (RuntimeException e) {
+            log.error("[member-ingest] {} members dropped", batch.size(), e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.ingest")
+    static class MemberIngestionProperties {
+
+        private int capacity = 10_000;
+        private int batchSize = 500;
+        private long flushIntervalMs = 200;
+        private long shutdownTimeoutMs = 30_000;
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package study.querydsl.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.MemberCreateRequest;
+import study.querydsl.repository.ShardedMemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 적재 큐에서 꺼낸 회원을 트랜잭션 하나로 묶어서 저장한다.
+ * > hibernate.jdbc.batch_size 로 insert 도 JDBC 배치로 나간다.
+ *
+ * 샤딩을 켜면(querydsl.shard.enabled) 팀이 있는 샤드별로 나눠서 샤드마다 트랜잭션 하나로 저장한다.
+ */
+@Slf4j
+@Component
+public class MemberIngestionWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<ShardedMemberRepository> shardedMemberRepository;
+
+    public MemberIngestionWriter(PlatformTransactionManager transactionManager,
+                                 ObjectProvider<ShardedMemberRepository> shardedMemberRepository) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.shardedMemberRepository = shardedMemberRepository;
+    }
+
+    /**
+     * 배치 전체를 저장하고, 실패하면 한 건씩 다시 저장해서 문제 있는 회원만 버린다.
+     *
+     * @return 저장한 회원 수
+     */
+    public int write(List<MemberCreateRequest> requests) {
+        ShardedMemberRepository sharded = shardedMemberRepository.getIfAvailable();
+        if (sharded == null) {
+            return write(requests, batch -> transactionTemplate.executeWithoutResult(status -> persist(batch)));
+        }
+
+        int written = 0;
+        for (List<MemberCreateRequest> shardRequests : sharded.groupByShard(requests, MemberCreateRequest::getTeamId)) {
+            written += write(shardRequests, sharded::saveMembers);
+        }
+        return written;
+    }
+
+    private int write(List<MemberCreateRequest> requests, Consumer<List<MemberCreateRequest>> writer) {
+        try {
+            writer.accept(requests);
+            return requests.size();
+        } catch (RuntimeException e) {
+            log.warn("[member-ingest] batch of {} failed, retrying one by one", requests.size(), e);
+        }
+
+        int written = 0;
+        for (MemberCreateRequest request : requests) {
+            try {
+                writer.accept(Collections.singletonList(request));
+                written++;
+            } catch (RuntimeException e) {
+                log.warn("[member-ingest] dropped : {}", request, e);
+            }
+        }
+        return written;
+    }
+
+    private void persist(List<MemberCreateRequest> requests) {
+        for (MemberCreateRequest request : requests) {
+            Member member = new Member(request.getUsername(), request.getAge());
+            if (request.getTeamId() != null) {
+                // 팀을 조회하지 않고 FK 만 건다.
+                member.setTeam(entityManager.getReference(Team.class, request.getTeamId()));
+            }
+            entityManager.persist(member);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+}
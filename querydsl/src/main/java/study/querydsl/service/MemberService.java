@@ -0,0 +1,40 @@
+package study.querydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+
+/**
+ * 회원 수정은 락을 잡지 않고 @Version 으로 충돌을 감지한 뒤 다시 시도한다.
+ * > 읽기-수정-쓰기 사이에 다른 트랜잭션이 끼어들어도 갱신이 사라지지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class MemberService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+
+    public Member addAge(Long memberId, int amount) {
+        return optimisticRetryTemplate.execute("member.addAge", () -> {
+            Member member = findMember(memberId);
+            member.setAge(member.getAge() + amount);
+            return member;
+        });
+    }
+
+    public Member changeUsername(Long memberId, String username) {
+        return optimisticRetryTemplate.execute("member.changeUsername", () -> {
+            Member member = findMember(memberId);
+            member.setUsername(username);
+            return member;
+        });
+    }
+
+    private Member findMember(Long memberId) {
+        return memberJpaRepository.findById(memberId)
+                .orElseThrow(() -> new IllegalArgumentException("회원이 없습니다. memberId = " + memberId));
+    }
+
+}
@@ -0,0 +1,91 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 트랜잭션을 새로 열어 다시 실행한다.
+ *
+ *  1. 시도마다 새 트랜잭션(REQUIRES_NEW) > 실패한 영속성 컨텍스트를 버리고 최신 버전을 다시 읽는다.
+ *  2. 대기 시간은 지수적으로 늘리되 maxBackoffMs 를 넘지 않고, 같은 순간에 다시 부딪히지 않도록 흔든다(jitter).
+ *  3. maxAttempts 번 실패하면 마지막 예외를 그대로 던진다.
+ *
+ * 메트릭 (tag operation)
+ *  - optimistic.lock.conflicts : 충돌 횟수
+ *  - optimistic.lock.retries : 재시도 횟수
+ *  - optimistic.lock.failures : 재시도를 다 쓰고 실패한 횟수
+ */
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryProperties optimisticRetryProperties;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   OptimisticRetryProperties optimisticRetryProperties,
+                                   MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.optimisticRetryProperties = optimisticRetryProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        long backoffMs = optimisticRetryProperties.getInitialBackoffMs();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                meterRegistry.counter("optimistic.lock.conflicts", "operation", operation).increment();
+                if (attempt >= optimisticRetryProperties.getMaxAttempts()) {
+                    meterRegistry.counter("optimistic.lock.failures", "operation", operation).increment();
+                    log.warn("[optimistic-retry] {} failed after {} attempts", operation, attempt);
+                    throw e;
+                }
+
+                meterRegistry.counter("optimistic.lock.retries", "operation", operation).increment();
+                if (!sleep(ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1))) {
+                    throw e;
+                }
+                backoffMs = Math.min(backoffMs * 2, optimisticRetryProperties.getMaxBackoffMs());
+            }
+        }
+    }
+
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.optimistic-retry")
+    static class OptimisticRetryProperties {
+
+        private int maxAttempts = 5;
+        private long initialBackoffMs = 10;
+        private long maxBackoffMs = 200;
+
+    }
+
+}
@@ -0,0 +1,70 @@
+package study.querydsl.shard;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.function.Function;
+
+/**
+ * 샤드 하나 = 데이터소스 + 엔티티 매니저 팩토리 + 트랜잭션
+ *
+ * 샤드마다 id 구간이 다르므로(index * ID_RANGE 부터) id 만으로 샤드를 찾을 수 있다.
+ */
+@Getter
+public class Shard {
+
+    public static final long ID_RANGE = 1L << 40;
+
+    private final int index;
+    private final DataSource dataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 트랜잭션에 묶인 엔티티 매니저 프록시 (스프링이 주입하는 EntityManager 와 같은 방식)
+     */
+    private final EntityManager entityManager;
+
+    Shard(int index, DataSource dataSource, EntityManagerFactory entityManagerFactory, TransactionTemplate transactionTemplate) {
+        this.index = index;
+        this.dataSource = dataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+    }
+
+    public static int indexOf(long id) {
+        return (int) (id / ID_RANGE);
+    }
+
+    public long firstId() {
+        return index * ID_RANGE + 1;
+    }
+
+    /**
+     * 트랜잭션 없이 읽기 전용으로 엔티티 매니저를 열고 닫는다.
+     */
+    public <T> T read(Function<EntityManager, T> query) {
+        EntityManager readOnlyEntityManager = entityManagerFactory.createEntityManager();
+        try {
+            return query.apply(readOnlyEntityManager);
+        } finally {
+            readOnlyEntityManager.close();
+        }
+    }
+
+    /**
+     * 샤드의 트랜잭션 안에서 실행한다. (샤드를 넘는 트랜잭션은 없다)
+     */
+    public <T> T write(Function<EntityManager, T> command) {
+        return transactionTemplate.execute(status -> command.apply(entityManager));
+    }
+
+}
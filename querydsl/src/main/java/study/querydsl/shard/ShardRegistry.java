@@ -0,0 +1,205 @@
+package study.querydsl.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 회원 샤드 목록
+ *
+ * 샤드의 EntityManagerFactory 는 빈으로 등록하지 않는다.
+ * > 빈으로 등록하면 기본 JPA 자동 설정(EntityManagerFactory 가 없을 때만 생성)이 꺼진다.
+ *
+ *  1. 새 팀은 샤드를 돌아가며 만들고, 회원은 팀이 있는 샤드에 저장된다. (팀이 없는 회원은 0번 샤드)
+ *  2. 샤드마다 hibernate_sequence 를 index * ID_RANGE 부터 시작해서 id(team_id, member_id)로 샤드를 찾는다.
+ *     > 팀명은 바뀔 수 있으므로 샤드를 정하는 데 쓰지 않는다. (팀명 > team_id 는 샤드의 team 테이블에서 찾는다)
+ *  3. 여러 샤드 조회는 샤드 수만큼의 스레드로 동시에 실행한다.
+ *
+ * 샤드에는 회원/팀 테이블만 만든다.
+ * ! 샤드에는 HibernateEventListenerConfig 의 리스너가 붙지 않는다. (team_stats, member_trigram 등 읽기 모델은 기본 DB 에만 있다)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "querydsl.shard.enabled", havingValue = "true")
+public class ShardRegistry implements DisposableBean {
+
+    private static final String SEQUENCE_BASE_VALUE =
+            "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'HIBERNATE_SEQUENCE'";
+
+    private static final List<String> SHARDED_ENTITIES = Arrays.asList(Member.class.getName(), Team.class.getName());
+
+    private final List<Shard> shards = new ArrayList<>();
+    private final List<LocalContainerEntityManagerFactoryBean> entityManagerFactoryBeans = new ArrayList<>();
+    private final List<HikariDataSource> dataSources = new ArrayList<>();
+    private final ExecutorService executorService;
+    private final AtomicInteger nextTeamShard = new AtomicInteger();
+
+    public ShardRegistry(ShardProperties shardProperties) {
+        if (shardProperties.getUrls().isEmpty()) {
+            throw new IllegalStateException("querydsl.shard.urls 가 비어 있습니다.");
+        }
+
+        for (int index = 0; index < shardProperties.getUrls().size(); index++) {
+            shards.add(createShard(index, shardProperties));
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executorService = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("[shard] {} shards : {}", shards.size(), shardProperties.getUrls());
+    }
+
+    public List<Shard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public Shard get(int index) {
+        return shards.get(index);
+    }
+
+    public Shard byId(long id) {
+        return shards.get(Shard.indexOf(id));
+    }
+
+    /**
+     * 팀이 저장된 샤드 = 팀의 회원이 저장된 샤드
+     */
+    public Shard byTeamId(long teamId) {
+        return byId(teamId);
+    }
+
+    /**
+     * 새 팀을 만들 샤드 > 돌아가며 고른다.
+     */
+    public Shard forNewTeam() {
+        return shards.get(Math.floorMod(nextTeamShard.getAndIncrement(), shards.size()));
+    }
+
+    /**
+     * 샤드마다 동시에 실행하고 샤드 순서대로 결과를 모은다.
+     */
+    public <T> List<T> scatter(List<Shard> targets, Function<Shard, T> task) {
+        if (targets.size() == 1) {
+            return Collections.singletonList(task.apply(targets.get(0)));
+        }
+
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> task.apply(shard), executorService))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executorService.shutdownNow();
+        for (LocalContainerEntityManagerFactoryBean entityManagerFactoryBean : entityManagerFactoryBeans) {
+            entityManagerFactoryBean.destroy();
+        }
+        for (HikariDataSource dataSource : dataSources) {
+            dataSource.close();
+        }
+    }
+
+    private Shard createShard(int index, ShardProperties shardProperties) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shardProperties.getUrls().get(index))
+                .username(shardProperties.getUsername())
+                .password(shardProperties.getPassword())
+                .build();
+        dataSource.setPoolName("shard-" + index);
+        dataSources.add(dataSource);
+
+        // 스프링 부트 기본 설정과 같은 이름 전략을 써야 기본 스키마와 같은 테이블/컬럼이 만들어진다.
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.hbm2ddl.auto", shardProperties.getDdlAuto());
+        jpaProperties.put("hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName());
+        jpaProperties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        // 샤드마다 같은 ID 가 있을 수 있는데 2차 캐시 리전(JCache)은 JVM 안에서 공유되므로 끈다.
+        jpaProperties.put("hibernate.cache.use_second_level_cache", false);
+
+        LocalContainerEntityManagerFactoryBean entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setPersistenceUnitName("shard-" + index);
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan(Member.class.getPackage().getName());
+        // 읽기 모델(team_stats, member_trigram, member_team_view)과 batch_checkpoint 는 기본 DB 에만 둔다.
+        entityManagerFactoryBean.setPersistenceUnitPostProcessors(persistenceUnit ->
+                persistenceUnit.getManagedClassNames().retainAll(SHARDED_ENTITIES));
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(jpaProperties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        entityManagerFactoryBeans.add(entityManagerFactoryBean);
+
+        Shard shard = new Shard(
+                index,
+                dataSource,
+                entityManagerFactoryBean.getObject(),
+                new TransactionTemplate(new JpaTransactionManager(entityManagerFactoryBean.getObject()))
+        );
+
+        Long baseValue = shard.getJdbcTemplate().queryForObject(SEQUENCE_BASE_VALUE, Long.class);
+        if (baseValue == null || baseValue < shard.firstId()) {
+            shard.getJdbcTemplate().execute("ALTER SEQUENCE hibernate_sequence RESTART WITH " + shard.firstId());
+        }
+        return shard;
+    }
+
+    @Getter
+    @Setter
+    @Component
+    @ConfigurationProperties(prefix = "querydsl.shard")
+    static class ShardProperties {
+
+        private boolean enabled = false;
+        private List<String> urls = new ArrayList<>();
+        private String username = "sa";
+        private String password = "";
+        private String ddlAuto = "create";
+
+    }
+
+}
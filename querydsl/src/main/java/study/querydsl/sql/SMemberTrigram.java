@@ -0,0 +1,45 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * member_trigram 테이블 SQL Q타입 (querydsl-sql-codegen 의 MetaDataSerializer 출력과 같은 모양)
+ * > SqlQueryTypeSchemaTest 가 실제 스키마와 비교한다.
+ */
+public class SMemberTrigram extends RelationalPathBase<SMemberTrigram> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final SMemberTrigram memberTrigram = new SMemberTrigram("MEMBER_TRIGRAM");
+
+    public final StringPath trigram = createString("trigram");
+
+    public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+    public final PrimaryKey<SMemberTrigram> primary = createPrimaryKey(memberId, trigram);
+
+    public SMemberTrigram(String variable) {
+        super(SMemberTrigram.class, forVariable(variable), "PUBLIC", "MEMBER_TRIGRAM");
+        addMetadata();
+    }
+
+    public SMemberTrigram(PathMetadata metadata) {
+        super(SMemberTrigram.class, metadata, "PUBLIC", "MEMBER_TRIGRAM");
+        addMetadata();
+    }
+
+    public void addMetadata() {
+        addMetadata(memberId, ColumnMetadata.named("MEMBER_ID").withIndex(1).ofType(Types.BIGINT).withSize(64).notNull());
+        addMetadata(trigram, ColumnMetadata.named("TRIGRAM").withIndex(2).ofType(Types.VARCHAR).withSize(3).notNull());
+    }
+
+}
@@ -0,0 +1,42 @@
+package study.querydsl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * startup 프로필의 지연/즉시 초기화 대상과 기동 타임라인
+ * > 기동 시간 예산은 장비 부하에 따라 흔들리므로 StartupBudgetBenchmarkTest 에서 따로 잰다.
+ */
+class StartupProfileTest {
+
+    @Test
+    public void startupProfileTest() throws Exception {
+        // 1) Given
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(QuerydslApplication.class)
+                .profiles("startup")
+                .properties("server.port=0");
+
+        // 2) When
+        try (ConfigurableApplicationContext context = builder.run()) {
+
+            // 3) Then
+            // 미리 만들어야 하는 빈과 지연 초기화 되는 빈
+            assertThat(context.getBeanFactory().containsSingleton("jpaQueryFactory")).isTrue();
+            assertThat(context.getBeanFactory().containsSingleton("memberRepository")).isTrue();
+            assertThat(context.getBeanFactory().containsSingleton("memberController")).isFalse();
+
+            // 기동 타임라인이 기록되었는지
+            assertThat(context.getBeanFactory().getApplicationStartup()).isInstanceOf(BufferingApplicationStartup.class);
+            StartupTimeline timeline = ((BufferingApplicationStartup) context.getBeanFactory().getApplicationStartup()).getBufferedTimeline();
+            assertThat(timeline.getEvents())
+                    .extracting(event -> event.getStartupStep().getName())
+                    .contains("spring.context.refresh", "spring.beans.instantiate");
+        }
+    }
+
+}
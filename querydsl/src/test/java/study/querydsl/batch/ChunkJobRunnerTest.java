@@ -0,0 +1,155 @@
+package study.querydsl.batch;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 청크마다 커밋하므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+class ChunkJobRunnerTest {
+
+    @Autowired
+    private ChunkJobRunner chunkJobRunner;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void beforeEach() {
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("member" + i, i * 10));
+        }
+        memberRepository.save(new Member("other", 100));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM batch_checkpoint");
+        jdbcTemplate.update("DELETE FROM team_stats");
+        jdbcTemplate.update("DELETE FROM team");
+    }
+
+    @Test
+    public void runTest() throws Exception {
+        // 1) Given
+        ChunkJob<Member> job = ChunkJob.of("add-age", member, member.id, member.username.startsWith("member"),
+                        chunk -> chunk.forEach(target -> target.setAge(target.getAge() + 1)))
+                .withChunkSize(2);
+
+        // 2) When
+        ChunkJobResult result = chunkJobRunner.run(job);
+
+        // 3) Then
+        assertThat(result.getProcessed()).isEqualTo(5);
+        assertThat(result.getChunks()).isEqualTo(3);
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(11, 21, 31, 41, 51, 100);
+    }
+
+    @Test
+    public void resumeTest() throws Exception {
+        // 1) Given
+        ChunkJob<Member> failing = ChunkJob.of("add-age-resume", member, member.id, member.username.startsWith("member"),
+                        chunk -> chunk.forEach(target -> {
+                            if (target.getUsername().equals("member4")) {
+                                throw new IllegalStateException("boom");
+                            }
+                            target.setAge(target.getAge() + 1);
+                        }))
+                .withChunkSize(2);
+        ChunkJob<Member> fixed = ChunkJob.of("add-age-resume", member, member.id, member.username.startsWith("member"),
+                        chunk -> chunk.forEach(target -> target.setAge(target.getAge() + 1)))
+                .withChunkSize(2);
+
+        // 2) When
+        assertThatThrownBy(() -> chunkJobRunner.run(failing)).isInstanceOf(IllegalStateException.class);
+        ChunkJobResult result = chunkJobRunner.run(fixed);
+
+        // 3) Then
+        // 첫 청크(member1, member2)만 커밋됐고, 두 번째 청크(member3, member4)는 롤백 후 다시 처리했다.
+        assertThat(result.isResumed()).isTrue();
+        assertThat(result.getProcessed()).isEqualTo(3);
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(11, 21, 31, 41, 51, 100);
+    }
+
+    @Test
+    public void parallelTest() throws Exception {
+        // 1) Given
+        ChunkJob<Member> job = ChunkJob.of("add-age-parallel", member, member.id, member.username.startsWith("member"),
+                        chunk -> chunk.forEach(target -> target.setAge(target.getAge() + 1)))
+                .withChunkSize(1)
+                .withPartitions(3);
+
+        // 2) When
+        ChunkJobResult result = chunkJobRunner.run(job);
+
+        // 3) Then
+        assertThat(result.getPartitions()).isEqualTo(3);
+        assertThat(result.getProcessed()).isEqualTo(5);
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(11, 21, 31, 41, 51, 100);
+    }
+
+    /**
+     * 청크의 회원 update 는 flush 때 JDBC 배치 하나로 나간다. (order_updates)
+     * > 읽기 모델 갱신이 배치를 중간에 실행하면 회원마다 statement 를 다시 준비한다.
+     */
+    @Test
+    public void batchedUpdateTest() throws Exception {
+        // 1) Given
+        int memberCount = 50;
+        Long teamId = new TransactionTemplate(transactionManager).execute(status -> {
+            Team team = new Team("teamA");
+            entityManager.persist(team);
+            for (int i = 0; i < memberCount; i++) {
+                entityManager.persist(new Member("batch" + i, i, team));
+            }
+            return team.getId();
+        });
+        ChunkJob<Member> job = ChunkJob.of("add-age-batched", member, member.id, member.username.startsWith("batch"),
+                        chunk -> chunk.forEach(target -> target.setAge(target.getAge() + 1)))
+                .withChunkSize(25);
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 2) When
+        ChunkJobResult result = chunkJobRunner.run(job);
+
+        // 3) Then
+        // 파티션 준비(체크포인트 조회/삭제, ID 범위, 체크포인트 insert) 4
+        // + 청크마다 (회원 조회, 체크포인트 조회, 회원 update 배치, 체크포인트 update) 4 + 마지막 빈 청크 3
+        assertThat(result.getChunks()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4 + 4 * result.getChunks() + 3);
+        assertThat(statistics.getEntityUpdateCount()).isGreaterThanOrEqualTo(memberCount);
+        assertThat(jdbcTemplate.queryForObject("SELECT age_sum FROM team_stats WHERE team_id = ?", Long.class, teamId))
+                .isEqualTo((long) memberCount * (memberCount - 1) / 2 + memberCount);
+    }
+
+}
@@ -0,0 +1,69 @@
+package study.querydsl.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크용 대량 데이터를 JDBC 배치로 넣는다.
+ *
+ * ! 엔티티 리스너를 거치지 않으므로 읽기 모델(team_stats, member_trigram 등)은 따로 다시 만들어야 한다.
+ */
+public final class BenchmarkData {
+
+    /**
+     * 벤치마크는 공용 H2 서버 대신 메모리 DB 를 쓴다.
+     */
+    public static final String DATASOURCE_URL = "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+    public static final String NO_SQL_LOG = "spring.jpa.properties.hibernate.show_sql=false";
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    public static void clear(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("DELETE FROM member");
+        jdbcTemplate.update("DELETE FROM team");
+    }
+
+    /**
+     * teamCount 개의 팀에 memberCount 명의 회원을 고르게 나눠 넣는다.
+     * 회원명은 'user' + 36진수 해시라서 부분 문자열이 고르게 흩어진다.
+     */
+    public static List<Long> insert(JdbcTemplate jdbcTemplate, int teamCount, int memberCount) {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            Long teamId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR hibernate_sequence", Long.class);
+            jdbcTemplate.update("INSERT INTO team (team_id, name, version) VALUES (?, ?, 0)", teamId, "team" + i);
+            teamIds.add(teamId);
+        }
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < memberCount; i++) {
+            String username = username(i);
+            batch.add(new Object[]{username, username.toLowerCase(), i % 100, teamIds.get(i % teamCount)});
+            if (batch.size() == BATCH_SIZE) {
+                insertMembers(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertMembers(jdbcTemplate, batch);
+        }
+        return teamIds;
+    }
+
+    public static String username(int i) {
+        return "user" + Long.toString((i * 2654435761L) & 0xffffffffL, 36);
+    }
+
+    private static void insertMembers(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO member (member_id, username, username_lower, age, team_id, version) VALUES (NEXT VALUE FOR hibernate_sequence, ?, ?, ?, ?, 0)",
+                batch
+        );
+    }
+
+}
@@ -0,0 +1,39 @@
+package study.querydsl.benchmark;
+
+import java.util.function.Supplier;
+
+/**
+ * 벤치마크 테스트 공통 측정 도구
+ */
+public final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * 워밍업 후 반복 실행한 평균 시간(ms)을 출력하고 반환한다.
+     */
+    public static double measure(String name, int warmup, int iterations, Supplier<?> task) {
+        for (int i = 0; i < warmup; i++) {
+            task.get();
+        }
+
+        Object result = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result = task.get();
+        }
+        double averageMillis = (System.nanoTime() - start) / 1_000_000.0 / iterations;
+
+        System.out.printf("%-50s avg = %10.3f ms (result = %s)%n", name, averageMillis, summary(result));
+        return averageMillis;
+    }
+
+    private static String summary(Object result) {
+        if (result instanceof java.util.Collection) {
+            return ((java.util.Collection<?>) result).size() + " rows";
+        }
+        return String.valueOf(result);
+    }
+
+}
@@ -0,0 +1,100 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.PageResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 검색 페이지(1천건, 1만건) 응답 형식 비교 : 크기(bytes), 인코딩/디코딩 시간
+ *
+ * MVC 가 응답에 쓰는 컨버터의 ObjectMapper 를 그대로 쓴다. (JSON / CBOR / Smile)
+ * MemberTeamDto 는 기본 생성자가 없으므로 디코딩은 readTree 로 잰다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+class BinaryFormatBenchmarkTest {
+
+    private static final int[] PAGE_SIZES = {1_000, 10_000};
+    private static final int ROWS_PER_ROUND = 1_000_000;
+
+    @Autowired
+    private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+    @Test
+    public void jsonVsCborVsSmile() throws Exception {
+        // 1) Given
+        ObjectMapper json = objectMapper(MediaType.APPLICATION_JSON);
+        ObjectMapper cbor = objectMapper(MediaType.APPLICATION_CBOR);
+        ObjectMapper smile = objectMapper(MediaType.parseMediaType("application/x-jackson-smile"));
+
+        for (int pageSize : PAGE_SIZES) {
+            PageResponse<MemberTeamDto> page = page(pageSize);
+            int iterations = ROWS_PER_ROUND / pageSize;
+
+            // 2) When
+            measure("json ", pageSize, iterations, json, page);
+            measure("cbor ", pageSize, iterations, cbor, page);
+            measure("smile", pageSize, iterations, smile, page);
+        }
+
+        // 3) Then
+        // 결과는 콘솔 출력으로 비교한다.
+    }
+
+    private void measure(String name, int pageSize, int iterations, ObjectMapper objectMapper, Object page) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(page);
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readTree(objectMapper.writeValueAsBytes(page)); // 워밍업
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes = objectMapper.writeValueAsBytes(page);
+        }
+        double encodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            objectMapper.readTree(bytes);
+        }
+        double decodeMicros = (System.nanoTime() - start) / 1_000.0 / iterations;
+
+        System.out.printf("%s rows = %6d, bytes = %9d, encode = %10.2f us/page, decode = %10.2f us/page%n",
+                name, pageSize, bytes.length, encodeMicros, decodeMicros);
+    }
+
+    /**
+     * MVC 처럼 응답을 쓸 수 있는 첫 번째 컨버터를 고른다.
+     */
+    private ObjectMapper objectMapper(MediaType mediaType) {
+        for (HttpMessageConverter<?> converter : requestMappingHandlerAdapter.getMessageConverters()) {
+            if (converter.canWrite(PageResponse.class, mediaType)) {
+                return ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+        throw new IllegalStateException("converter not registered : " + mediaType);
+    }
+
+    private PageResponse<MemberTeamDto> page(int pageSize) {
+        List<MemberTeamDto> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            content.add(new MemberTeamDto((long) i, BenchmarkData.username(i), i % 100, (long) (i % 10), "team" + (i % 10)));
+        }
+        return PageResponse.of(new PageImpl<>(content, PageRequest.of(0, pageSize), 100_000));
+    }
+
+}
@@ -0,0 +1,101 @@
+package study.querydsl.benchmark;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+/**
+ * 영속 상태 회원 1만 ~ 10만 명을 들고 있을 때 flush 비용 (변경 없음 / 1% 변경)
+ *
+ * 바이트코드 향상 전후를 비교하려면 두 번 실행한다.
+ *  ./gradlew test -Pbenchmark --tests '*DirtyCheckingBenchmarkTest'
+ *  ./gradlew test -Pbenchmark -PnoEnhance --tests '*DirtyCheckingBenchmarkTest'
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DirtyCheckingBenchmarkTest {
+
+    private static final int[] MANAGED_COUNTS = {10_000, 50_000, 100_000};
+    private static final int FLUSHES = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MANAGED_COUNTS[MANAGED_COUNTS.length - 1]);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void flushCost() throws Exception {
+        // 1) Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        System.out.println("enhanced dirty tracking = " + SelfDirtinessTracker.class.isAssignableFrom(Member.class));
+
+        for (int managedCount : MANAGED_COUNTS) {
+            // 2) When
+            transactionTemplate.execute(status -> {
+                List<Member> members = entityManager
+                        .createQuery("select m from Member m order by m.id", Member.class)
+                        .setMaxResults(managedCount)
+                        .getResultList();
+                entityManager.flush();
+
+                double clean = measureFlush(() -> { });
+                double dirty = measureFlush(() -> {
+                    for (int i = 0; i < members.size(); i += 100) {
+                        Member member = members.get(i);
+                        member.setAge(member.getAge() + 1);
+                    }
+                });
+
+                System.out.printf("managed = %6d, flush(clean) = %8.3f ms, flush(1%% dirty) = %8.3f ms%n", members.size(), clean, dirty);
+                status.setRollbackOnly();
+                return null;
+            });
+            entityManager.clear();
+        }
+
+        // 3) Then
+        // 결과는 콘솔 출력으로 비교한다.
+    }
+
+    private double measureFlush(Runnable change) {
+        change.run();
+        entityManager.flush(); // 워밍업
+
+        long elapsed = 0;
+        for (int i = 0; i < FLUSHES; i++) {
+            change.run();
+            long start = System.nanoTime();
+            entityManager.flush();
+            elapsed += System.nanoTime() - start;
+        }
+        return elapsed / 1_000_000.0 / FLUSHES;
+    }
+
+}
@@ -0,0 +1,86 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.InitMember;
+import study.querydsl.QuerydslApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 초기 데이터 적재 모드별 기동 시간 비교
+ *
+ * - blocking : SpringApplication.run() 이 끝나기까지 걸린 시간 (트래픽을 받을 수 있게 되기까지)
+ * - ready : 초기 데이터가 모두 들어가서 readiness 가 UP 이 되기까지 걸린 시간
+ *
+ * 결과 표는 콘솔과 build/reports/benchmark/init-member-bootstrap.txt 에 남긴다. (기본 모드를 바꿀 근거로 쓴다)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InitMemberBootstrapBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 100_000;
+    private static final Path REPORT = Paths.get("build", "reports", "benchmark", "init-member-bootstrap.txt");
+
+    @Test
+    public void compareBootstrapMode() throws Exception {
+        // 1) Given
+        Path snapshotPath = Files.createTempDirectory("init-member-snapshot");
+
+        // 2) When
+        long[] sync = boot("sync", snapshotPath);
+        long[] async = boot("async", snapshotPath);
+        long[] snapshotCold = boot("snapshot", snapshotPath); // 스냅샷 없음 > 적재 후 스냅샷 생성
+        long[] snapshotWarm = boot("snapshot", snapshotPath); // 스냅샷 복원
+
+        // 3) Then
+        List<String> report = Arrays.asList(
+                "mode            blocking(ms)  ready(ms)  members=" + MEMBER_COUNT,
+                String.format("sync            %12d %10d", sync[0], sync[1]),
+                String.format("async           %12d %10d", async[0], async[1]),
+                String.format("snapshot(cold)  %12d %10d", snapshotCold[0], snapshotCold[1]),
+                String.format("snapshot(warm)  %12d %10d", snapshotWarm[0], snapshotWarm[1])
+        );
+        report.forEach(System.out::println);
+        Files.createDirectories(REPORT.getParent());
+        Files.write(REPORT, report);
+
+        assertThat(async[0]).isLessThan(sync[0]);
+        assertThat(snapshotWarm[1]).isLessThan(sync[1]);
+    }
+
+    private long[] boot(String mode, Path snapshotPath) throws InterruptedException, IOException {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .profiles("local")
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bootstrap-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "logging.level.org.hibernate.sql=info",
+                        "querydsl.bootstrap.mode=" + mode,
+                        "querydsl.bootstrap.member-count=" + MEMBER_COUNT,
+                        "querydsl.bootstrap.snapshot-path=" + snapshotPath.toAbsolutePath()
+                )
+                .run()) {
+            long blocking = (System.nanoTime() - start) / 1_000_000;
+
+            InitMember initMember = context.getBean(InitMember.class);
+            while (!initMember.isCompleted()) {
+                Thread.sleep(10);
+            }
+            long ready = (System.nanoTime() - start) / 1_000_000;
+
+            return new long[]{blocking, ready};
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.dto.MemberExportManifest;
+import study.querydsl.service.MemberExportService;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 50만 명 내보내기 : 파티션 수(1, 2, 4, 8)에 따른 처리량 (rows/s) 과 1 파티션 대비 배율
+ *
+ * ! 커넥션 풀(hikari 기본 10) 보다 파티션이 많으면 커넥션을 기다린다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberExportBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 500_000;
+    private static final int[] PARTITIONS = {1, 2, 4, 8};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberExportService memberExportService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void throughputByPartitions() throws Exception {
+        for (MemberExportService.Format format : MemberExportService.Format.values()) {
+            // 1) Given
+            memberExportService.export(tempDir, 1, format); // 워밍업
+            double base = 0;
+
+            for (int partitions : PARTITIONS) {
+                // 2) When
+                MemberExportManifest manifest = memberExportService.export(tempDir, partitions, format);
+
+                // 3) Then
+                assertThat(manifest.getRows()).isEqualTo(MEMBER_COUNT);
+                long bytes = manifest.getFiles().stream().mapToLong(MemberExportManifest.PartitionFile::getBytes).sum();
+                if (partitions == 1) {
+                    base = manifest.getRowsPerSecond();
+                }
+                System.out.printf("%-6s partitions = %d, elapsed = %6d ms, rows/s = %10.0f, x%.2f, gzip = %8d KB%n",
+                        format, partitions, manifest.getElapsedMs(), manifest.getRowsPerSecond(),
+                        manifest.getRowsPerSecond() / base, bytes / 1024);
+            }
+        }
+    }
+
+}
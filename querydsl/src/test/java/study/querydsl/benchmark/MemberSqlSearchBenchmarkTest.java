@@ -0,0 +1,91 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.repository.MemberRepository;
+import study.querydsl.repository.MemberRepositoryCustom;
+import study.querydsl.repository.MemberSqlRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 회원 20만 명에서 JPA(MemberRepositoryImpl) 와 querydsl-sql(MemberSqlRepository) 검색 비교
+ *
+ * 두 쪽 모두 같은 읽기 전용 트랜잭션 안에서 실행한다. (트랜잭션 비용은 같게 두고 조회 경로만 비교)
+ *  - search : 조건에 걸리는 회원 전체 (약 2만 건)
+ *  - searchComplex : 1천 건 페이지 + count
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberSqlSearchBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void jpaVsSql() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("team3");
+        memberSearchCondition.setAgeLoe(49);
+
+        // 2) When
+        double jpaSearch = Benchmarks.measure("jpa search", 5, 20, () -> search(memberRepository, memberSearchCondition));
+        double sqlSearch = Benchmarks.measure("sql search", 5, 20, () -> search(memberSqlRepository, memberSearchCondition));
+        double jpaPage = Benchmarks.measure("jpa searchComplex (1000)", 5, 50, () -> page(memberRepository, memberSearchCondition));
+        double sqlPage = Benchmarks.measure("sql searchComplex (1000)", 5, 50, () -> page(memberSqlRepository, memberSearchCondition));
+
+        // 3) Then
+        assertThat(search(memberSqlRepository, memberSearchCondition))
+                .containsExactlyInAnyOrderElementsOf(search(memberRepository, memberSearchCondition));
+        System.out.printf("search : jpa / sql = %.2f, searchComplex : jpa / sql = %.2f%n", jpaSearch / sqlSearch, jpaPage / sqlPage);
+    }
+
+    private List<MemberTeamDto> search(MemberRepositoryCustom repository, MemberSearchCondition memberSearchCondition) {
+        return readOnly.execute(status -> repository.search(memberSearchCondition));
+    }
+
+    private List<MemberTeamDto> page(MemberRepositoryCustom repository, MemberSearchCondition memberSearchCondition) {
+        return readOnly.execute(status -> repository.searchComplex(memberSearchCondition, PageRequest.of(3, 1_000)).getContent());
+    }
+
+}
@@ -0,0 +1,80 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.repository.MemberTrigramPredicates;
+import study.querydsl.repository.MemberTrigramRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 회원 100만 명에서 like '%keyword%' 와 트라이그램 색인 검색 비교
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MemberTrigramBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberTrigramRepository memberTrigramRepository;
+
+    @Autowired
+    private JPAQueryFactory jpaQueryFactory;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+        long start = System.currentTimeMillis();
+        memberTrigramRepository.rebuild();
+        System.out.println("trigram rebuild = " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    @AfterAll
+    public void afterAll() {
+        jdbcTemplate.update("DELETE FROM member_trigram");
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void likeVsTrigram() throws Exception {
+        // 1) Given
+        String rare = BenchmarkData.username(123_456).substring(3);   // 거의 한 명만 걸리는 검색어
+        String common = BenchmarkData.username(123_456).substring(4, 7); // 많이 걸리는 3글자 검색어
+
+        for (String keyword : new String[]{rare, common}) {
+            // 2) When
+            double like = Benchmarks.measure("like      '" + keyword + "'", 3, 10, () -> jpaQueryFactory
+                    .select(member.id)
+                    .from(member)
+                    .where(member.username.contains(keyword))
+                    .fetch());
+            double trigram = Benchmarks.measure("trigram   '" + keyword + "'", 3, 10, () -> jpaQueryFactory
+                    .select(member.id)
+                    .from(member)
+                    .where(MemberTrigramPredicates.usernameContains(keyword))
+                    .fetch());
+
+            // 3) Then
+            List<Long> expected = jpaQueryFactory.select(member.id).from(member).where(member.username.contains(keyword)).orderBy(member.id.asc()).fetch();
+            List<Long> actual = jpaQueryFactory.select(member.id).from(member).where(MemberTrigramPredicates.usernameContains(keyword)).orderBy(member.id.asc()).fetch();
+            assertThat(actual).isEqualTo(expected);
+            System.out.printf("keyword '%s' : like / trigram = %.2f%n", keyword, like / trigram);
+        }
+    }
+
+}
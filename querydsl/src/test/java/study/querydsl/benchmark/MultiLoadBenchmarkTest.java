@@ -0,0 +1,125 @@
+package study.querydsl.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ID 10 / 100 / 1만 개 조회 : findById 반복 vs findAllByIds (multiLoad)
+ *
+ * 쿼리 수(prepared statement)와 트랜잭션 하나 안에서의 지연 시간을 비교한다.
+ * 영속성 컨텍스트에 절반이 이미 있는 경우도 잰다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MultiLoadBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 100_000;
+    private static final int[] ID_COUNTS = {10, 100, 10_000};
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> memberIds;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+        memberIds = jdbcTemplate.queryForList("SELECT member_id FROM member", Long.class);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void findByIdLoopVsMultiLoad() throws Exception {
+        // 1) Given
+        Random random = new Random(42);
+
+        for (int idCount : ID_COUNTS) {
+            List<Long> shuffled = new ArrayList<>(memberIds);
+            Collections.shuffle(shuffled, random);
+            List<Long> ids = shuffled.subList(0, idCount);
+            List<Long> half = ids.subList(0, idCount / 2);
+
+            // 2) When
+            measure("findById loop", idCount, () -> loop(ids));
+            measure("findAllByIds", idCount, () -> memberJpaRepository.findAllByIds(ids));
+            measure("findAllByIds (half cached)", idCount, () -> {
+                memberJpaRepository.findAllByIds(half);
+                statistics().clear(); // 절반을 올려 둔 쿼리는 빼고 센다. (시간은 포함)
+                return memberJpaRepository.findAllByIds(ids);
+            });
+
+            // 3) Then
+            List<Member> loaded = new TransactionTemplate(transactionManager).execute(status -> memberJpaRepository.findAllByIds(ids));
+            assertThat(loaded).extracting(Member::getId).containsExactlyElementsOf(ids);
+        }
+    }
+
+    private List<Member> loop(List<Long> ids) {
+        List<Member> members = new ArrayList<>();
+        for (Long id : ids) {
+            memberJpaRepository.findById(id).ifPresent(members::add);
+        }
+        return members;
+    }
+
+    private void measure(String name, int idCount, Supplier<List<Member>> task) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.execute(status -> task.get()); // 워밍업
+
+        long[] statements = new long[1];
+        long[] elapsed = new long[1];
+        for (int i = 0; i < ITERATIONS; i++) {
+            transactionTemplate.executeWithoutResult(status -> {
+                statistics().clear();
+                long start = System.nanoTime();
+                task.get();
+                elapsed[0] += System.nanoTime() - start;
+                statements[0] += statistics().getPrepareStatementCount();
+            });
+        }
+
+        System.out.printf("%-28s ids = %6d, statements = %6d, latency = %9.3f ms%n",
+                name, idCount, statements[0] / ITERATIONS, elapsed[0] / 1_000_000.0 / ITERATIONS);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+}
@@ -0,0 +1,115 @@
+package study.querydsl.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.event.MemberBulkChangedEvent;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 자주 찾는 회원명 1,000 개를 반복 조회 : findByUsername_QueryDSL (JPQL) vs findByUsernameCached (자연 키 캐시)
+ *
+ * 조회마다 트랜잭션 하나(요청 하나)로 보고, 지연 시간/쿼리 수/자연 키 캐시 적중률을 비교한다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG, "querydsl.unique-username.enabled=true"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NaturalIdCacheBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 100_000;
+    private static final int HOT_USERNAMES = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<String> usernames = new ArrayList<>();
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+        // JDBC 로 넣었으므로 unique_username 을 채운다. (MemberUniqueUsernameSynchronizer)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(MemberBulkChangedEvent.all()));
+
+        for (int i = 0; i < HOT_USERNAMES; i++) {
+            usernames.add(BenchmarkData.username(i * (MEMBER_COUNT / HOT_USERNAMES)));
+        }
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void queryVsNaturalIdCache() throws Exception {
+        // 1) Given
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // 2) When
+        measure("findByUsername_QueryDSL", () -> {
+            for (String username : usernames) {
+                readOnly.execute(status -> memberJpaRepository.findByUsername_QueryDSL(username));
+            }
+        });
+        measure("findByUsernameCached", () -> {
+            for (String username : usernames) {
+                memberJpaRepository.findByUsernameCached(username);
+            }
+        });
+
+        // 3) Then
+        for (String username : usernames) {
+            assertThat(memberJpaRepository.findByUsernameCached(username)).isPresent();
+        }
+    }
+
+    /**
+     * 첫 번째 반복은 캐시를 채우는 워밍업으로 보고 빼서 잰다.
+     */
+    private void measure(String name, Runnable lookups) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        lookups.run();
+        statistics.clear();
+
+        double averageMillis = Benchmarks.measure(name + " x" + HOT_USERNAMES, 0, 5, () -> {
+            lookups.run();
+            return null;
+        });
+
+        long hit = statistics.getNaturalIdCacheHitCount();
+        long miss = statistics.getNaturalIdCacheMissCount();
+        System.out.printf("%-50s per lookup = %8.4f ms, statements = %6d, natural id cache hit ratio = %.3f%n",
+                name, averageMillis / HOT_USERNAMES, statistics.getPrepareStatementCount(),
+                hit + miss == 0 ? 0 : (double) hit / (hit + miss));
+    }
+
+}
@@ -0,0 +1,135 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.service.MemberService;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 소수의 회원(핫 로우)을 여러 스레드가 동시에 수정할 때 낙관적 락 + 재시도와 비관적 락(select for update) 처리량 비교
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {
+        BenchmarkData.DATASOURCE_URL,
+        BenchmarkData.NO_SQL_LOG,
+        "querydsl.optimistic-retry.max-attempts=50"
+})
+class OptimisticLockBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 250;
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    public void beforeEach() {
+        memberIds.clear();
+        memberIds.addAll(jdbcTemplate.queryForList("SELECT member_id FROM member", Long.class));
+        if (memberIds.isEmpty()) {
+            BenchmarkData.insert(jdbcTemplate, 1, 4);
+            memberIds.addAll(jdbcTemplate.queryForList("SELECT member_id FROM member", Long.class));
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void optimisticVsPessimistic() throws Exception {
+        for (int hotRows : new int[]{1, 4}) {
+            // 1) Given
+            List<Long> hot = memberIds.subList(0, hotRows);
+
+            // 2) When
+            double optimistic = run("optimistic + retry, hot rows = " + hotRows, hot,
+                    (memberId, amount) -> memberService.addAge(memberId, amount));
+            double pessimistic = run("pessimistic lock,   hot rows = " + hotRows, hot,
+                    (memberId, amount) -> transactionTemplate.executeWithoutResult(status -> {
+                        Member member = entityManager.find(Member.class, memberId, LockModeType.PESSIMISTIC_WRITE);
+                        member.setAge(member.getAge() + amount);
+                    }));
+
+            // 3) Then
+            System.out.printf("hot rows = %d, optimistic/pessimistic throughput = %.2f%n", hotRows, optimistic / pessimistic);
+        }
+    }
+
+    /**
+     * 처리량(건/초)을 출력하고 반환한다. 갱신이 하나라도 사라지면 실패한다.
+     */
+    private double run(String name, List<Long> hot, BiConsumer<Long, Integer> update) throws Exception {
+        long ageBefore = ageSum(hot);
+        AtomicLong updated = new AtomicLong();
+
+        double averageMillis = Benchmarks.measure(name, 1, 3, () -> {
+            ExecutorService executorService = Executors.newFixedThreadPool(THREADS);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    int thread = t;
+                    futures.add(executorService.submit(() -> {
+                        for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                            update.accept(hot.get((thread + i) % hot.size()), 1);
+                            updated.incrementAndGet();
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            } finally {
+                executorService.shutdown();
+            }
+            return updated.get();
+        });
+
+        assertThat(ageSum(hot) - ageBefore).as("잃어버린 갱신이 없어야 한다.").isEqualTo(updated.get());
+
+        double throughput = THREADS * UPDATES_PER_THREAD / (averageMillis / 1000.0);
+        System.out.printf("%-50s throughput = %10.1f updates/s%n", name, throughput);
+        return throughput;
+    }
+
+    private long ageSum(List<Long> memberIds) {
+        long sum = 0;
+        for (Long memberId : memberIds) {
+            sum += jdbcTemplate.queryForObject("SELECT age FROM member WHERE member_id = ?", Integer.class, memberId);
+        }
+        return sum;
+    }
+
+}
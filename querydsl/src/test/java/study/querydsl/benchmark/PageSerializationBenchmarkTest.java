@@ -0,0 +1,79 @@
+package study.querydsl.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.entity.dto.PageResponse;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 검색 한 페이지(100건) 직렬화 비교 : 크기(bytes)와 페이지당 CPU 시간
+ *
+ *  - PageImpl + 기본 ObjectMapper (기존 /v3/members)
+ *  - PageResponse + 스프링 ObjectMapper (MemberTeamDtoSerializer, Afterburner)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+class PageSerializationBenchmarkTest {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ITERATIONS = 20_000;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void pageImplVsPageResponse() throws Exception {
+        // 1) Given
+        List<MemberTeamDto> content = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            content.add(new MemberTeamDto((long) i, BenchmarkData.username(i), i % 100, (long) (i % 10), "team" + (i % 10)));
+        }
+        Page<MemberTeamDto> page = new PageImpl<>(content, PageRequest.of(3, PAGE_SIZE), 100_000);
+        ObjectMapper defaultObjectMapper = new ObjectMapper();
+
+        // 2) When
+        measure("PageImpl     + bean serializer", () -> defaultObjectMapper.writeValueAsBytes(page));
+        measure("PageResponse + bean serializer", () -> defaultObjectMapper.writeValueAsBytes(PageResponse.of(page)));
+        measure("PageImpl     + tuned serializer", () -> objectMapper.writeValueAsBytes(page));
+        measure("PageResponse + tuned serializer", () -> objectMapper.writeValueAsBytes(PageResponse.of(page)));
+
+        // 3) Then
+        // 결과는 콘솔 출력으로 비교한다.
+    }
+
+    private void measure(String name, JsonTask task) throws JsonProcessingException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < ITERATIONS; i++) {
+            task.write(); // 워밍업
+        }
+
+        int bytes = 0;
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = task.write().length;
+        }
+        double cpuMicros = (threadMXBean.getCurrentThreadCpuTime() - cpuStart) / 1_000.0 / ITERATIONS;
+        double wallMicros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+
+        System.out.printf("%-40s bytes = %7d, cpu = %8.2f us/page, wall = %8.2f us/page%n", name, bytes, cpuMicros, wallMicros);
+    }
+
+    @FunctionalInterface
+    private interface JsonTask {
+        byte[] write() throws JsonProcessingException;
+    }
+
+}
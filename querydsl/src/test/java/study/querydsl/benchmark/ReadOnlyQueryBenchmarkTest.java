@@ -0,0 +1,105 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberTestRepository;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * 엔티티 페이지(1천 건 x 50 페이지)를 한 쓰기 트랜잭션에서 읽을 때 힌트 없음 vs readOnly(query) 힌트
+ * > 읽기 전용 트랜잭션은 JpaTransactionManager 가 세션을 읽기 전용으로 바꿔 힌트와 같아지므로 비교하지 않는다.
+ *
+ *  - cpu : 조회 + 커밋(flush 변경 감지)까지의 스레드 CPU 시간
+ *  - allocated : 스레드 할당량 (스냅샷 복사본 포함)
+ *  - retained : 커밋 직전 GC 후 힙 사용량 증가분 (영속성 컨텍스트가 붙잡고 있는 양)
+ *
+ * ! com.sun.management.ThreadMXBean 이 필요하다. (HotSpot)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadOnlyQueryBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 50_000;
+    private static final int PAGE_SIZE = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberTestRepository memberTestRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void noHintVsReadOnlyHint() throws Exception {
+        // 1) Given
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        for (int round = 0; round < 3; round++) {
+            // 2) When
+            measure("no hint", readWrite, page -> memberTestRepository.findPage(PageRequest.of(page, PAGE_SIZE)));
+            measure("readOnly(query) hint", readWrite, page -> memberTestRepository.findPageReadOnly(PageRequest.of(page, PAGE_SIZE)));
+        }
+
+        // 3) Then
+        // 결과는 콘솔 출력으로 비교한다.
+    }
+
+    private void measure(String name, TransactionTemplate transactionTemplate, IntFunction<List<Member>> pageLoader) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long[] retained = new long[1];
+
+        System.gc();
+        long heapStart = usedHeap();
+        long allocatedStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+
+        int rows = transactionTemplate.execute(status -> {
+            List<Member> loaded = new ArrayList<>();
+            for (int page = 0; page < MEMBER_COUNT / PAGE_SIZE; page++) {
+                loaded.addAll(pageLoader.apply(page));
+            }
+            System.gc();
+            retained[0] = usedHeap() - heapStart;
+            return loaded.size();
+        });
+
+        double cpuMillis = (threadMXBean.getCurrentThreadCpuTime() - cpuStart) / 1_000_000.0;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedStart;
+
+        System.out.printf("%-24s rows = %6d, cpu = %8.2f ms, allocated = %7.1f bytes/row, retained = %7.1f bytes/row%n",
+                name, rows, cpuMillis, (double) allocated / rows, (double) retained[0] / rows);
+    }
+
+    private long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+}
@@ -0,0 +1,40 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.querydsl.QuerydslApplication;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * startup 프로필 기동 시간 예산
+ * > 지연/즉시 초기화 대상과 타임라인은 StartupProfileTest 가 기본 테스트에서 확인한다.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupBudgetBenchmarkTest {
+
+    private static final Duration BUDGET = Duration.ofSeconds(15);
+
+    @Test
+    public void startupProfileWithinBudget() throws Exception {
+        // 1) Given
+        long start = System.nanoTime();
+
+        // 2) When
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(QuerydslApplication.class)
+                .profiles("startup")
+                .properties("server.port=0", BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG)
+                .run()) {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // 3) Then
+            System.out.println("startup elapsed = " + elapsed.toMillis() + "ms");
+            assertThat(elapsed).isLessThan(BUDGET);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package study.querydsl.benchmark;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberBatchRepository;
+import study.querydsl.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+/**
+ * 회원 20만 명 전체 읽기 : 영속성 컨텍스트(findAll) vs StatelessSession 스크롤
+ *
+ * 스레드 할당량(bytes/row)과 트랜잭션 전체 시간(커밋 시 flush 변경 감지 포함)을 비교한다.
+ * ! com.sun.management.ThreadMXBean 이 필요하다. (HotSpot)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatelessSessionBenchmarkTest {
+
+    private static final int MEMBER_COUNT = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private MemberBatchRepository memberBatchRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, 10, MEMBER_COUNT);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void persistenceContextVsStateless() throws Exception {
+        // 1) Given
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long[] ageSum = new long[1];
+
+        for (int round = 0; round < 3; round++) {
+            // 2) When
+            measure("findAll (persistence context)", () -> transactionTemplate.execute(status -> {
+                List<Member> members = memberJpaRepository.findAll();
+                members.forEach(member -> ageSum[0] += member.getAge());
+                entityManager.flush(); // 커밋 때와 같은 변경 감지 비용
+                return (long) members.size();
+            }));
+            measure("forEachMember (stateless)", () -> transactionTemplate.execute(status ->
+                    memberBatchRepository.forEachMember(member -> ageSum[0] += member.getAge())));
+        }
+
+        // 3) Then
+        // 결과는 콘솔 출력으로 비교한다.
+        System.out.println("checksum = " + ageSum[0]);
+    }
+
+    private void measure(String name, LongSupplier task) {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedStart = threadMXBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long rows = task.getAsLong();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedStart;
+
+        System.out.printf("%-32s rows = %7d, time = %9.2f ms, allocated = %8.1f bytes/row%n",
+                name, rows, millis, (double) allocated / rows);
+    }
+
+}
@@ -0,0 +1,128 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.TeamRosterDto;
+import study.querydsl.repository.TeamRosterRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+import static study.querydsl.entity.QTeam.team;
+
+/**
+ * 팀별 회원명 목록 : listagg 한 번 vs 조인해서 자바에서 묶기 vs Team.members 지연 로딩(N+1)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TeamRosterBenchmarkTest {
+
+    private static final int TEAM_COUNT = 1_000;
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeamRosterRepository teamRosterRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, TEAM_COUNT, MEMBER_COUNT);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void listaggVsJoinVsLazy() throws Exception {
+        // 1) Given
+
+        // 2) When
+        Benchmarks.measure("roster : listagg", 1, 5, () -> readOnly.execute(status ->
+                teamRosterRepository.findAll()
+        ));
+        Benchmarks.measure("roster : join + group in java", 1, 5, () -> readOnly.execute(status ->
+                joinAndGroup()
+        ));
+        Benchmarks.measure("roster : lazy Team.members", 1, 1, () -> readOnly.execute(status ->
+                lazyMembers()
+        ));
+
+        // 3) Then
+        List<TeamRosterDto> listagg = readOnly.execute(status -> teamRosterRepository.findAll());
+        List<TeamRosterDto> joined = readOnly.execute(status -> joinAndGroup());
+        assertThat(listagg).isEqualTo(joined);
+    }
+
+    /**
+     * 팀 컬럼이 회원 수만큼 반복된다.
+     */
+    private List<TeamRosterDto> joinAndGroup() {
+        List<Tuple> rows = new JPAQueryFactory(entityManager)
+                .select(team.id, team.name, member.username)
+                .from(team)
+                .leftJoin(team.members, member)
+                .orderBy(team.id.asc(), member.username.asc())
+                .fetch();
+
+        Map<Long, TeamRosterDto> roster = new LinkedHashMap<>();
+        for (Tuple row : rows) {
+            TeamRosterDto teamRoster = roster.computeIfAbsent(row.get(team.id),
+                    teamId -> new TeamRosterDto(teamId, row.get(team.name), 0, new ArrayList<>()));
+            String username = row.get(member.username);
+            if (username != null) {
+                teamRoster.getUsernames().add(username);
+                teamRoster.setMemberCount(teamRoster.getMemberCount() + 1);
+            }
+        }
+        return new ArrayList<>(roster.values());
+    }
+
+    /**
+     * 팀마다 Team.members 를 읽는 쿼리가 한 번씩 더 나간다.
+     */
+    private List<TeamRosterDto> lazyMembers() {
+        List<Team> teams = new JPAQueryFactory(entityManager)
+                .selectFrom(team)
+                .orderBy(team.id.asc())
+                .fetch();
+
+        return teams.stream()
+                .map(t -> new TeamRosterDto(t.getId(), t.getName(), t.getMembers().size(),
+                        t.getMembers().stream().map(Member::getUsername).sorted().collect(Collectors.toList())))
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,115 @@
+package study.querydsl.benchmark;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.QMember;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.repository.MemberSqlRepository;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static study.querydsl.entity.QMember.member;
+
+/**
+ * 상관 서브쿼리 (JPQL) vs 윈도 함수 (querydsl-sql, FROM 절 서브쿼리에서 계산하고 DB 에서 거른다)
+ *  - 나이가 팀 평균 이상인 회원 : age >= (select avg(age) ... where team = m.team) vs avg(age) over (partition by team_id)
+ *  - 팀마다 나이 많은 순서로 N 명 : (select count(*) ... where team = m.team and age > m.age) < N vs row_number() over (...)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = {BenchmarkData.DATASOURCE_URL, BenchmarkData.NO_SQL_LOG})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WindowFunctionBenchmarkTest {
+
+    private static final int TEAM_COUNT = 100;
+    private static final int MEMBER_COUNT = 20_000; // 상관 서브쿼리는 회원마다 팀을 다시 읽으므로 크게 잡지 않는다.
+    private static final int TOP_N = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+
+    @BeforeAll
+    public void beforeAll() {
+        BenchmarkData.insert(jdbcTemplate, TEAM_COUNT, MEMBER_COUNT);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterAll
+    public void afterAll() {
+        BenchmarkData.clear(jdbcTemplate);
+    }
+
+    @Test
+    public void teamAverage() throws Exception {
+        // 1) Given
+        QMember memberSub = new QMember("memberSub");
+
+        // 2) When
+        Benchmarks.measure("team average : correlated subquery", 1, 3, () -> readOnly.execute(status ->
+                new JPAQueryFactory(entityManager)
+                        .selectFrom(member)
+                        .where(member.age.goe(
+                                select(memberSub.age.avg())
+                                        .from(memberSub)
+                                        .where(memberSub.team.eq(member.team))
+                        ))
+                        .fetch()
+        ));
+        Benchmarks.measure("team average : avg over", 1, 3, () -> readOnly.execute(status ->
+                memberSqlRepository.findAgeGoeTeamAverage()
+        ));
+
+        // 3) Then
+        List<MemberTeamDto> result = readOnly.execute(status -> memberSqlRepository.findAgeGoeTeamAverage());
+        assertThat(result).isNotEmpty();
+    }
+
+    @Test
+    public void oldestPerTeam() throws Exception {
+        // 1) Given
+        QMember memberSub = new QMember("memberSub");
+
+        // 2) When
+        // 나이가 같으면 N 명보다 많이 나올 수 있다. (rank 기준)
+        Benchmarks.measure("oldest " + TOP_N + " per team : correlated subquery", 1, 3, () -> readOnly.execute(status ->
+                new JPAQueryFactory(entityManager)
+                        .selectFrom(member)
+                        .where(select(memberSub.count())
+                                .from(memberSub)
+                                .where(memberSub.team.eq(member.team), memberSub.age.gt(member.age))
+                                .lt((long) TOP_N))
+                        .fetch()
+        ));
+        Benchmarks.measure("oldest " + TOP_N + " per team : row_number over", 1, 3, () -> readOnly.execute(status ->
+                memberSqlRepository.findOldestPerTeam(TOP_N)
+        ));
+
+        // 3) Then
+        List<MemberTeamDto> result = readOnly.execute(status -> memberSqlRepository.findOldestPerTeam(TOP_N));
+        assertThat(result).hasSize(TEAM_COUNT * TOP_N);
+    }
+
+}
@@ -0,0 +1,154 @@
+package study.querydsl.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import study.querydsl.entity.dto.PageResponse;
+import study.querydsl.entity.Member;
+import study.querydsl.monitor.HibernateStatisticsFilter;
+import study.querydsl.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 테이블 버전은 커밋된 뒤에 오르므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private RequestMappingHandlerAdapter requestMappingHandlerAdapter;
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void notModifiedTest() throws Exception {
+        // 1) Given
+        String eTag = mockMvc.perform(get("/v3/members").param("ageGoe", "10").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // 2) When
+        // 파라미터 순서만 다른 같은 요청
+        int status = mockMvc.perform(get("/v3/members").param("size", "5").param("ageGoe", "10")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+
+        // 3) Then
+        assertThat(eTag).isNotNull();
+        assertThat(status).isEqualTo(304);
+    }
+
+    @Test
+    public void modifiedAfterCommitTest() throws Exception {
+        // 1) Given
+        String eTag = mockMvc.perform(get("/v3/members"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // 2) When
+        memberRepository.save(new Member("member1", 10));
+
+        // 3) Then
+        mockMvc.perform(get("/v3/members").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    public void statisticsHeaderOffByDefaultTest() throws Exception {
+        // 1) Given
+
+        // 2) When
+        String header = mockMvc.perform(get("/v1/members"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HibernateStatisticsFilter.HEADER_NAME);
+
+        // 3) Then
+        // querydsl.statistics.per-request 기본값은 false
+        assertThat(header).isNull();
+    }
+
+    @Test
+    public void binaryContentNegotiationTest() throws Exception {
+        // 1) Given
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // 2) When
+        String jsonETag = mockMvc.perform(get("/v4/members").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        String smileETag = mockMvc.perform(get("/v4/members").accept(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/v4/members").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR));
+
+        // 3) Then
+        // Accept 가 다르면 응답 본문이 다르므로 ETag 도 달라야 한다.
+        assertThat(smileETag).isNotEqualTo(jsonETag);
+    }
+
+    @Test
+    public void smileConverterTest() throws Exception {
+        // 1) Given
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // 2) When
+        // MVC 처럼 쓸 수 있는 첫 번째 컨버터를 고른다.
+        ObjectMapper objectMapper = null;
+        for (HttpMessageConverter<?> converter : requestMappingHandlerAdapter.getMessageConverters()) {
+            if (converter.canWrite(PageResponse.class, smile)) {
+                objectMapper = ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper();
+                break;
+            }
+        }
+
+        // 3) Then
+        assertThat(objectMapper).isNotNull();
+        assertThat(objectMapper.getFactory()).isInstanceOf(SmileFactory.class);
+        assertThat(((SmileFactory) objectMapper.getFactory()).isEnabled(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES))
+                .as("JacksonConfig 의 SmileFactory 여야 한다.").isTrue();
+        assertThat(objectMapper.getRegisteredModuleIds()).as("부트 설정(Module 빈)이 적용되어야 한다.")
+                .contains(new AfterburnerModule().getTypeId());
+    }
+
+}
@@ -0,0 +1,33 @@
+package study.querydsl.entity.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamDtoSerializerTest {
+
+    @Test
+    public void sameAsBeanSerializerTest() throws Exception {
+        // 1) Given
+        List<MemberTeamDto> memberTeamDtos = Arrays.asList(
+                new MemberTeamDto(1L, "member1", 10, 100L, "teamA"),
+                new MemberTeamDto(2L, "member \"2\"", 20, null, null)
+        );
+        ObjectMapper beanSerializer = new ObjectMapper();
+        ObjectMapper handWritten = new ObjectMapper()
+                .registerModule(new SimpleModule().addSerializer(new MemberTeamDtoSerializer()));
+
+        // 2) When
+        String expected = beanSerializer.writeValueAsString(memberTeamDtos);
+        String actual = handWritten.writeValueAsString(memberTeamDtos);
+
+        // 3) Then
+        assertThat(actual).isEqualTo(expected);
+    }
+
+}
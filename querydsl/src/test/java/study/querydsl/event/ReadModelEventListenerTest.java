@@ -0,0 +1,117 @@
+package study.querydsl.event;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.repository.TeamStatsRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * 읽기 모델 리스너(team_stats, member_trigram, member_team_view)가 회원 insert/update JDBC 배치를 깨지 않는지 Statistics 로 센다.
+ * > 리스너가 member 를 다시 읽으려고 배치를 중간에 실행하면 회원마다 statement 를 다시 준비한다.
+ */
+@SpringBootTest
+@Transactional
+class ReadModelEventListenerTest {
+
+    private static final int MEMBER_COUNT = 100; // hibernate.jdbc.batch_size(500) 보다 작게 > 배치 하나
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeamStatsRepository teamStatsRepository;
+
+    private Statistics statistics;
+    private Team teamA;
+    private Team teamB;
+
+    @BeforeEach
+    public void beforeTest() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+    }
+
+    @Test
+    public void insertFlushTest() throws Exception {
+        // 1) Given
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            entityManager.persist(new Member("member" + i, i, teamA)); // ID 시퀀스 조회는 여기서 끝난다.
+        }
+        statistics.clear();
+
+        // 2) When
+        entityManager.flush();
+
+        // 3) Then
+        // team insert 배치 1 + member insert 배치 1
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(MEMBER_COUNT + 2);
+        assertThat(teamStatsRepository.findAll())
+                .extracting("teamName", "memberCount", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", (long) MEMBER_COUNT, 0, MEMBER_COUNT - 1),
+                        tuple("teamB", 0L, null, null)
+                );
+        assertThat(count("SELECT COUNT(*) FROM member_team_view WHERE team_name = 'teamA'")).isEqualTo(MEMBER_COUNT);
+        assertThat(count("SELECT COUNT(DISTINCT member_id) FROM member_trigram")).isEqualTo(MEMBER_COUNT);
+    }
+
+    @Test
+    public void updateFlushTest() throws Exception {
+        // 1) Given
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            entityManager.persist(new Member("member" + i, i, teamA));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Member> members = entityManager.createQuery("select m from Member m", Member.class).getResultList();
+        members.forEach(member -> {
+            member.setUsername("renamed" + member.getAge());
+            member.setAge(member.getAge() + 1000);
+            member.setTeam(entityManager.getReference(Team.class, teamB.getId()));
+        });
+        statistics.clear();
+
+        // 2) When
+        entityManager.flush();
+
+        // 3) Then
+        // member update 배치 1 (회원마다 준비하면 MEMBER_COUNT 개)
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(MEMBER_COUNT);
+        assertThat(teamStatsRepository.findAll())
+                .extracting("teamName", "memberCount", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 0L, null, null),
+                        tuple("teamB", (long) MEMBER_COUNT, 1000, 1000 + MEMBER_COUNT - 1)
+                );
+        assertThat(count("SELECT COUNT(*) FROM member_team_view WHERE team_name = 'teamB' AND username LIKE 'renamed%'")).isEqualTo(MEMBER_COUNT);
+        assertThat(count("SELECT COUNT(*) FROM member_trigram WHERE trigram = 'ren'")).isEqualTo(MEMBER_COUNT);
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class);
+    }
+
+}
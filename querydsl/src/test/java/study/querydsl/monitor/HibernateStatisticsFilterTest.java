@@ -0,0 +1,56 @@
+package study.querydsl.monitor;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 기본값은 꺼져 있으므로 켜고 실행한다.
+ */
+@SpringBootTest(properties = "querydsl.statistics.per-request=true")
+@AutoConfigureMockMvc
+class HibernateStatisticsFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void deltaTest() throws Exception {
+        // 1) Given
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 20));
+
+        // 2) When
+        MvcResult result = mockMvc.perform(get("/v1/members").param("ageGoe", "10"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // 3) Then
+        // 조인 검색 쿼리 1번 (회원 2명은 한 번에 읽는다)
+        HibernateStatisticsSnapshot delta = (HibernateStatisticsSnapshot) result.getRequest().getAttribute(HibernateStatisticsFilter.ATTRIBUTE_NAME);
+        assertThat(delta).isNotNull();
+        assertThat(delta.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(delta.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(result.getResponse().getHeader(HibernateStatisticsFilter.HEADER_NAME)).isEqualTo(delta.toHeaderValue());
+        assertThat(result.getResponse().getContentAsString()).contains("member1", "member2");
+    }
+
+}
@@ -0,0 +1,103 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class MemberBatchRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberBatchRepository memberBatchRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Team teamA;
+
+    @BeforeEach
+    public void beforeTest() {
+        teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("member1", 10, teamA));
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void insertMembersTest() throws Exception {
+        // 1) Given
+        Team team = entityManager.find(Team.class, teamA.getId());
+        List<Member> members = Arrays.asList(new Member("Batch1", 30), new Member("Batch2", 40));
+        members.forEach(member -> member.setTeam(team));
+
+        // 2) When
+        int count = memberBatchRepository.insertMembers(members);
+
+        // 3) Then
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsernameContains("batch");
+        memberSearchCondition.setIgnoreCase(true);
+        List<MemberTeamDto> result = memberRepository.search(memberSearchCondition);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(members).allSatisfy(member -> assertThat(member.getId()).isNotNull());
+        // 콜백(username_lower)과 트라이그램 색인이 채워졌다.
+        assertThat(result).extracting("username", "teamName")
+                .containsExactlyInAnyOrder(
+                        tuple("Batch1", "teamA"),
+                        tuple("Batch2", "teamA")
+                );
+    }
+
+    @Test
+    public void forEachMemberTest() throws Exception {
+        // 1) Given
+        List<String> visited = new ArrayList<>();
+
+        // 2) When
+        long count = memberBatchRepository.forEachMember(member ->
+                visited.add(member.getUsername() + "/" + member.getTeam().getName()));
+
+        // 3) Then
+        assertThat(count).isEqualTo(2);
+        assertThat(visited).containsExactly("member1/teamA", "member2/teamA");
+    }
+
+    @Test
+    public void addAgeTest() throws Exception {
+        // 1) Given
+        Member before = memberRepository.findByUsername("member1").get(0);
+        long version = before.getVersion();
+        entityManager.clear();
+
+        // 2) When
+        long count = memberBatchRepository.addAge(5);
+
+        // 3) Then
+        Member after = memberRepository.findByUsername("member1").get(0);
+        assertThat(count).isEqualTo(2);
+        assertThat(after.getAge()).isEqualTo(15);
+        assertThat(after.getVersion()).isEqualTo(version + 1);
+    }
+
+}
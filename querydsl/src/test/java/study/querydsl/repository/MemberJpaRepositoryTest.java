@@ -1,8 +1,11 @@
 package study.querydsl.repository;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import study.querydsl.entity.Member;
 import study.querydsl.entity.Team;
 import study.querydsl.entity.condition.MemberSearchCondition;
@@ -10,9 +13,12 @@ import study.querydsl.entity.dto.MemberTeamDto;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -24,6 +30,12 @@ class MemberJpaRepositoryTest {
     @Autowired
     private MemberJpaRepository memberJpaRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TeamStatsRepository teamStatsRepository;
+
     @Test
     public void basicTest() throws Exception {
         // 1) Given
@@ -104,4 +116,180 @@ class MemberJpaRepositoryTest {
                 .containsExactly("member3", "member4");
     }
 
+
+    @Test
+    public void searchIgnoreCaseTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+
+        Member member1 = new Member("Member1", 10, teamA);
+        Member member2 = new Member("MEMBER2", 20, teamA);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setIgnoreCase(true);
+
+        // 2) When
+        memberSearchCondition.setUsername("member1");
+        List<MemberTeamDto> byUsername = memberJpaRepository.search(memberSearchCondition);
+
+        memberSearchCondition.setUsername(null);
+        memberSearchCondition.setUsernameContains("mBeR");
+        List<MemberTeamDto> byUsernameContains = memberJpaRepository.search(memberSearchCondition);
+
+        memberSearchCondition.setIgnoreCase(false);
+        List<MemberTeamDto> caseSensitive = memberJpaRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(byUsername)
+                .extracting("username")
+                .containsExactly("Member1");
+        assertThat(byUsernameContains)
+                .extracting("username")
+                .containsExactlyInAnyOrder("Member1", "MEMBER2");
+        assertThat(caseSensitive).isEmpty();
+    }
+
+    @Test
+    public void usernameLowerSyncTest() throws Exception {
+        // 1) Given
+        Member member1 = new Member("Member1", 10);
+        memberJpaRepository.save(member1);
+        entityManager.flush();
+
+        // 2) When
+        member1.setUsername("RENAMED");
+        entityManager.flush();
+
+        // 3) Then
+        assertThat(member1.getUsernameLower()).isEqualTo("renamed");
+    }
+
+    @Test
+    public void searchInChunkTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        entityManager.persist(new Member("member1", 10, teamA));
+        entityManager.persist(new Member("member2", 20, teamB));
+        entityManager.persist(new Member("member3", 30, teamB));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        List<String> usernames = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            usernames.add("none" + i);
+        }
+        usernames.add(0, "member1");
+        usernames.add("member2");
+        usernames.add("member2");
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsernames(usernames);
+        memberSearchCondition.setTeamNames(Arrays.asList("teamA", "teamB"));
+
+        // 2) When
+        List<MemberTeamDto> result = memberJpaRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result)
+                .as("청크로 나눠도 중복 없이 합쳐져야 한다.")
+                .extracting("username")
+                .containsExactlyInAnyOrder("member1", "member2");
+    }
+
+    @Test
+    public void searchInChunkIgnoreCaseTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        entityManager.persist(new Member("member1", 10, teamA));
+
+        entityManager.flush();
+        entityManager.clear();
+
+        // 대소문자만 다른 값이 서로 다른 청크에 들어가도록 앞뒤에 둔다.
+        List<String> usernames = new ArrayList<>();
+        usernames.add("member1");
+        for (int i = 0; i < 2500; i++) {
+            usernames.add("none" + i);
+        }
+        usernames.add("MEMBER1");
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsernames(usernames);
+        memberSearchCondition.setIgnoreCase(true);
+
+        // 2) When
+        List<MemberTeamDto> result = memberJpaRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result)
+                .as("소문자로 맞춘 뒤에 중복을 빼므로 한 번만 나와야 한다.")
+                .extracting("username")
+                .containsExactly("member1");
+    }
+
+    @Test
+    public void findAllByIdsTest() throws Exception {
+        // 1) Given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            Member member = new Member("member" + i, i * 10);
+            entityManager.persist(member);
+            ids.add(member.getId());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Member cached = entityManager.find(Member.class, ids.get(3)); // 영속성 컨텍스트에 올려 둔다.
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long loadCount = statistics.getEntityLoadCount();
+
+        // 2) When
+        // 순서를 섞고, 없는 ID 와 중복 ID 를 넣는다.
+        List<Member> result = memberJpaRepository.findAllByIds(Arrays.asList(ids.get(3), ids.get(0), -1L, ids.get(2), ids.get(0)));
+
+        // 3) Then
+        assertThat(result).extracting("username").containsExactly("member4", "member1", "member3");
+        assertThat(result.get(0)).as("영속성 컨텍스트에 있던 객체를 그대로 돌려준다.").isSameAs(cached);
+        assertThat(statistics.getEntityLoadCount() - loadCount).as("영속성 컨텍스트에 없던 2명만 읽는다.").isEqualTo(2);
+    }
+
+    @Test
+    public void bulkAddAgeTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        entityManager.persist(member1);
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.flush();
+
+        // 색인을 다시 만들면 사라지는 표식
+        jdbcTemplate.update("INSERT INTO member_trigram (trigram, member_id) VALUES ('zzz', ?)", member1.getId());
+
+        // 2) When
+        long count = memberJpaRepository.bulkAddAge(5);
+
+        // 3) Then
+        assertThat(count).isEqualTo(2);
+        assertThat(teamStatsRepository.findAll())
+                .extracting("teamName", "ageAvg", "minAge", "maxAge")
+                .containsExactly(tuple("teamA", 20.0, 15, 25));
+        assertThat(jdbcTemplate.queryForList("SELECT age FROM member_team_view ORDER BY age", Integer.class)).containsExactly(15, 25);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_trigram WHERE trigram = 'zzz'", Integer.class))
+                .as("나이만 바뀌었으므로 트라이그램 색인은 다시 만들지 않는다.").isEqualTo(1);
+    }
+
 }
@@ -13,6 +13,7 @@ import study.querydsl.entity.dto.MemberTeamDto;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -119,6 +120,68 @@ class MemberRepositoryTest {
                 .containsExactly("member1", "member2", "member3");
     }
 
+    @Test
+    public void searchUsernameContainsTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamA);
+        Member member13 = new Member("member13", 40, teamA);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member13);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+
+        // 2) When
+        memberSearchCondition.setUsernameContains("ber1"); // 트라이그램 색인
+        List<MemberTeamDto> byTrigram = memberRepository.search(memberSearchCondition);
+
+        memberSearchCondition.setUsernameContains("3"); // 3글자 미만은 like
+        List<MemberTeamDto> byLike = memberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(byTrigram)
+                .extracting("username")
+                .containsExactlyInAnyOrder("member1", "member13");
+        assertThat(byLike)
+                .extracting("username")
+                .containsExactlyInAnyOrder("member3", "member13");
+    }
+
+    @Test
+    public void searchUsernameContainsAfterRenameTest() throws Exception {
+        // 1) Given
+        Member member1 = new Member("member1", 10);
+        entityManager.persist(member1);
+        entityManager.flush();
+
+        // 2) When
+        member1.setUsername("renamed1");
+        entityManager.flush();
+        entityManager.clear();
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsernameContains("member");
+        List<MemberTeamDto> before = memberRepository.search(memberSearchCondition);
+
+        memberSearchCondition.setUsernameContains("named");
+        List<MemberTeamDto> after = memberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(before).isEmpty();
+        assertThat(after)
+                .extracting("username")
+                .containsExactly("renamed1");
+    }
+
     @Test
     public void querydslPredicateExecutorTest() throws Exception {
         // 1) Given
@@ -159,5 +222,37 @@ class MemberRepositoryTest {
         }
     }
 
+    @Test
+    public void findAllByIdsTest() throws Exception {
+        // 1) Given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+        Member member2 = memberRepository.save(new Member("member2", 20));
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        List<Member> result = memberRepository.findAllByIds(Arrays.asList(member2.getId(), member1.getId()));
+
+        // 3) Then
+        assertThat(result).extracting("username").containsExactly("member2", "member1");
+    }
+
+    @Test
+    public void findByUsernameCachedTest() throws Exception {
+        // 1) Given : unique-username 모드가 꺼져 있으면 username 이 중복될 수 있다.
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member1", 20));
+        entityManager.flush();
+        entityManager.clear();
+
+        // 2) When
+        Member result = memberRepository.findByUsernameCached("member1").orElse(null);
+
+        // 3) Then
+        assertThat(result).isNotNull();
+        assertThat(result.getUsername()).isEqualTo("member1");
+        assertThat(result.getUniqueUsername()).as("모드가 꺼져 있으면 자연 키를 채우지 않는다.").isNull();
+        assertThat(memberRepository.findByUsernameCached("unknown")).isEmpty();
+    }
 
-}
\ No newline at end of file
+}
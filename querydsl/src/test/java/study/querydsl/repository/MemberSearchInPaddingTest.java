@@ -0,0 +1,66 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 하이버네이트의 IN 목록 패딩을 끄고 InClauseSupport 패딩만으로 플랜을 재사용하는지 확인한다.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=false")
+@Transactional
+class MemberSearchInPaddingTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Test
+    public void searchInPlanCacheTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        for (int i = 1; i <= 4; i++) {
+            entityManager.persist(new Member("member" + i, i * 10, teamA));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsernames(Arrays.asList("member1", "member2", "member3"));
+        memberJpaRepository.search(memberSearchCondition);
+
+        // 2) When
+        long missCount = statistics.getQueryPlanCacheMissCount();
+
+        memberSearchCondition.setUsernames(Arrays.asList("member1", "member2", "member3", "member4"));
+        List<MemberTeamDto> result = memberJpaRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result)
+                .extracting("username")
+                .containsExactlyInAnyOrder("member1", "member2", "member3", "member4");
+        assertThat(statistics.getQueryPlanCacheMissCount())
+                .as("3개와 4개 목록은 같은 크기(4)로 채워지므로 플랜을 재사용해야 한다.")
+                .isEqualTo(missCount);
+    }
+
+}
@@ -0,0 +1,139 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class MemberSqlRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberSqlRepository memberSqlRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    private Team teamB;
+
+    @BeforeEach
+    public void beforeTest() {
+        Team teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        entityManager.persist(new Member("member1", 10, teamA));
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.persist(new Member("Member3", 30, teamB));
+        entityManager.persist(new Member("member4", 40, teamB));
+        entityManager.persist(new Member("member5", 50));
+
+        // SQL 쿼리는 영속성 컨텍스트를 보지 않으므로 먼저 DB 에 반영한다.
+        entityManager.flush();
+    }
+
+    @Test
+    public void sameAsJpaSearchTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setAgeGoe(15);
+
+        // 2) When
+        List<MemberTeamDto> sql = memberSqlRepository.search(memberSearchCondition);
+        List<MemberTeamDto> jpa = memberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(sql).containsExactlyInAnyOrderElementsOf(jpa);
+        assertThat(sql)
+                .extracting("username", "teamName")
+                .containsExactlyInAnyOrder(
+                        tuple("member2", "teamA"),
+                        tuple("Member3", "teamB"),
+                        tuple("member4", "teamB"),
+                        tuple("member5", null)
+                );
+    }
+
+    @Test
+    public void searchConditionTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition containsCondition = new MemberSearchCondition();
+        containsCondition.setUsernameContains("member3");
+        containsCondition.setIgnoreCase(true);
+
+        MemberSearchCondition inCondition = new MemberSearchCondition();
+        inCondition.setUsernames(Arrays.asList("member1", "member4"));
+        inCondition.setTeamNames(Arrays.asList("teamA", "teamB"));
+
+        // 2) When
+        List<MemberTeamDto> contains = memberSqlRepository.search(containsCondition);
+        List<MemberTeamDto> in = memberSqlRepository.search(inCondition);
+
+        // 3) Then
+        assertThat(contains).extracting("username").containsExactly("Member3");
+        assertThat(in).containsExactlyInAnyOrderElementsOf(memberRepository.search(inCondition));
+        assertThat(in).extracting("username").containsExactlyInAnyOrder("member1", "member4");
+    }
+
+    @Test
+    public void searchComplexTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("teamB");
+
+        // 2) When
+        Page<MemberTeamDto> result = memberSqlRepository.searchComplex(memberSearchCondition, PageRequest.of(0, 1));
+
+        // 3) Then
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent().get(0).getTeamName()).isEqualTo("teamB");
+    }
+
+    @Test
+    public void findAgeGoeTeamAverageTest() throws Exception {
+        // 1) Given : teamA 평균 15, teamB 평균 35, member5 는 팀이 없다.
+
+        // 2) When
+        List<MemberTeamDto> result = memberSqlRepository.findAgeGoeTeamAverage();
+
+        // 3) Then
+        assertThat(result).extracting("username").containsExactly("member2", "member4");
+    }
+
+    @Test
+    public void findOldestPerTeamTest() throws Exception {
+        // 1) Given
+        entityManager.persist(new Member("member6", 40, teamB));
+        entityManager.flush();
+
+        // 2) When
+        List<MemberTeamDto> oldest = memberSqlRepository.findOldestPerTeam(1);
+        List<MemberTeamDto> oldestTwo = memberSqlRepository.findOldestPerTeam(2);
+
+        // 3) Then
+        // 나이가 같으면 ID 순서 > member4 가 member6 보다 먼저 들어왔다.
+        assertThat(oldest).extracting("username").containsExactly("member2", "member4");
+        assertThat(oldestTwo).extracting("username").containsExactly("member2", "member1", "member4", "member6");
+    }
+
+}
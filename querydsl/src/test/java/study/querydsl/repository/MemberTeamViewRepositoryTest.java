@@ -0,0 +1,125 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberTeamDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class MemberTeamViewRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberTeamViewRepository memberTeamViewRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    private Team teamA;
+    private Member member1;
+
+    @BeforeEach
+    public void beforeTest() {
+        teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        member1 = new Member("member1", 10, teamA);
+        entityManager.persist(member1);
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.persist(new Member("member3", 30, teamB));
+        entityManager.persist(new Member("member4", 40, teamB));
+        entityManager.persist(new Member("member5", 50));
+
+        entityManager.flush();
+    }
+
+    @Test
+    public void sameAsJoinSearchTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setAgeGoe(15);
+
+        // 2) When
+        List<MemberTeamDto> view = memberTeamViewRepository.search(memberSearchCondition);
+        List<MemberTeamDto> join = memberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(view).containsExactlyInAnyOrderElementsOf(join);
+        assertThat(view)
+                .extracting("username", "teamName")
+                .containsExactlyInAnyOrder(
+                        tuple("member2", "teamA"),
+                        tuple("member3", "teamB"),
+                        tuple("member4", "teamB"),
+                        tuple("member5", null)
+                );
+    }
+
+    @Test
+    public void searchComplexTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("teamB");
+
+        // 2) When
+        Page<MemberTeamDto> result = memberTeamViewRepository.searchComplex(memberSearchCondition, PageRequest.of(0, 1));
+
+        // 3) Then
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).hasSize(1);
+    }
+
+    @Test
+    public void memberAndTeamChangeTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("teamRenamed");
+
+        // 2) When
+        teamA.setName("teamRenamed");
+        member1.setUsername("renamed1");
+        entityManager.flush();
+
+        // 3) Then
+        assertThat(memberTeamViewRepository.search(memberSearchCondition))
+                .extracting("username")
+                .containsExactlyInAnyOrder("renamed1", "member2");
+    }
+
+    @Test
+    public void bulkTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setAgeGoe(50);
+
+        // 2) When
+        memberJpaRepository.bulkAddAge(10);
+
+        // 3) Then
+        assertThat(memberTeamViewRepository.search(memberSearchCondition))
+                .extracting("username")
+                .containsExactlyInAnyOrder("member4", "member5");
+    }
+
+}
@@ -0,0 +1,85 @@
+package study.querydsl.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 읽기 전용 트랜잭션을 직접 열어야 하므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+class MemberTestRepositoryTest {
+
+    @Autowired
+    private MemberTestRepository memberTestRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void beforeEach() {
+        memberRepository.save(new Member("member1", 10));
+        memberRepository.save(new Member("member2", 20));
+    }
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    /**
+     * 읽기 전용 트랜잭션은 JpaTransactionManager 가 세션을 이미 읽기 전용으로 바꾸므로 쓰기 트랜잭션에서 힌트만 확인한다.
+     */
+    @Test
+    public void readOnlyHintTest() throws Exception {
+        // 1) Given
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // 2) When
+        Boolean loadedReadOnly = readWrite.execute(status -> {
+            List<Member> members = memberTestRepository.findPageReadOnly(PageRequest.of(0, 10));
+            members.forEach(member -> member.setAge(member.getAge() + 100)); // 반영되지 않는다.
+            return members.stream().allMatch(entityManager.unwrap(Session.class)::isReadOnly);
+        });
+
+        // 3) Then
+        assertThat(loadedReadOnly).isTrue();
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(10, 20);
+    }
+
+    @Test
+    public void readWriteTransactionTest() throws Exception {
+        // 1) Given
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        // 2) When
+        Boolean loadedReadOnly = readWrite.execute(status -> {
+            List<Member> members = memberTestRepository.findPage(PageRequest.of(0, 10));
+            members.forEach(member -> member.setAge(member.getAge() + 100));
+            return members.stream().anyMatch(entityManager.unwrap(Session.class)::isReadOnly);
+        });
+
+        // 3) Then
+        assertThat(loadedReadOnly).isFalse();
+        assertThat(memberRepository.findAll()).extracting("age").containsExactlyInAnyOrder(110, 120);
+    }
+
+}
@@ -0,0 +1,114 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.event.MemberBulkChangedEvent;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2차 캐시는 커밋된 뒤에 채워지므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest(properties = "querydsl.unique-username.enabled=true")
+class MemberUniqueUsernameTest {
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void naturalIdCacheTest() throws Exception {
+        // 1) Given
+        Member member = memberRepository.save(new Member("member1", 10));
+        assertThat(member.getUniqueUsername()).isEqualTo("member1");
+        memberRepository.findByUsernameCached("member1"); // 캐시에 없으면 DB 에서 읽어서 넣는다.
+        statistics.clear();
+
+        // 2) When
+        Member result = memberRepository.findByUsernameCached("member1").orElse(null);
+
+        // 3) Then
+        assertThat(result).isNotNull();
+        assertThat(result.getId()).isEqualTo(member.getId());
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).as("자연 키/엔티티 캐시로 찾으면 쿼리가 나가지 않는다.").isZero();
+    }
+
+    @Test
+    public void renameTest() throws Exception {
+        // 1) Given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+        memberRepository.findByUsernameCached("member1");
+
+        // 2) When
+        transactionTemplate.executeWithoutResult(status ->
+                entityManager.find(Member.class, memberId).setUsername("renamed"));
+
+        // 3) Then
+        assertThat(memberRepository.findByUsernameCached("member1")).isEmpty();
+        assertThat(memberRepository.findByUsernameCached("renamed")).get().extracting(Member::getId).isEqualTo(memberId);
+    }
+
+    @Test
+    public void bulkRenameTest() throws Exception {
+        // 1) Given
+        Long memberId = memberRepository.save(new Member("member1", 10)).getId();
+        memberRepository.findByUsernameCached("member1");
+
+        // 2) When : JDBC 로 바꾸면 엔티티 리스너를 거치지 않는다.
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE member SET username = ? WHERE member_id = ?", "renamed", memberId);
+            eventPublisher.publishEvent(MemberBulkChangedEvent.of(Collections.singletonList(memberId)));
+        });
+
+        // 3) Then
+        assertThat(memberRepository.findByUsernameCached("member1")).isEmpty();
+        assertThat(memberRepository.findByUsernameCached("renamed")).get().extracting(Member::getId).isEqualTo(memberId);
+        assertThat(jdbcTemplate.queryForObject("SELECT unique_username FROM member WHERE member_id = ?", String.class, memberId))
+                .isEqualTo("renamed");
+    }
+
+}
@@ -0,0 +1,183 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.condition.MemberSearchCondition;
+import study.querydsl.entity.dto.MemberCreateRequest;
+import study.querydsl.entity.dto.MemberTeamDto;
+import study.querydsl.service.MemberIngestionWriter;
+import study.querydsl.shard.Shard;
+import study.querydsl.shard.ShardRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 H2 3개를 샤드로 쓴다.
+ */
+@SpringBootTest(properties = {
+        "querydsl.shard.enabled=true",
+        "querydsl.shard.urls[0]=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "querydsl.shard.urls[1]=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "querydsl.shard.urls[2]=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1"
+})
+class ShardedMemberRepositoryTest {
+
+    @Autowired
+    private ShardedMemberRepository shardedMemberRepository;
+
+    @Autowired
+    private ShardRegistry shardRegistry;
+
+    @Autowired
+    private MemberSearchSource memberSearchSource;
+
+    @Autowired
+    private MemberIngestionWriter memberIngestionWriter;
+
+    @BeforeEach
+    public void beforeEach() {
+        for (int i = 0; i < 6; i++) {
+            Team team = shardedMemberRepository.saveTeam(new Team("team" + i));
+            for (int j = 0; j < 5; j++) {
+                shardedMemberRepository.saveMember(new Member("member" + i + "-" + j, i * 10 + j, team));
+            }
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        for (Shard shard : shardRegistry.getShards()) {
+            shard.getJdbcTemplate().update("DELETE FROM member");
+            shard.getJdbcTemplate().update("DELETE FROM team");
+        }
+    }
+
+    @Test
+    public void routeWriteTest() throws Exception {
+        // 1) Given
+        Team team = shardedMemberRepository.saveTeam(new Team("teamX"));
+
+        // 2) When
+        Member member = shardedMemberRepository.saveMember(new Member("memberX", 10, team));
+
+        // 3) Then
+        Shard owner = shardRegistry.byTeamId(team.getId());
+        assertThat(Shard.indexOf(team.getId())).as("팀 id 로 샤드를 찾을 수 있어야 한다.").isEqualTo(owner.getIndex());
+        assertThat(Shard.indexOf(member.getId())).as("회원은 팀과 같은 샤드에 있어야 한다.").isEqualTo(owner.getIndex());
+        assertThat(shardedMemberRepository.findById(member.getId()))
+                .get()
+                .extracting("username")
+                .isEqualTo("memberX");
+    }
+
+    @Test
+    public void scatterGatherSearchTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setAgeGoe(20);
+
+        // 2) When
+        List<MemberTeamDto> result = shardedMemberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result).hasSize(20);
+        assertThat(result)
+                .extracting("memberId")
+                .as("샤드 결과를 합쳐도 memberId 순서여야 한다.")
+                .isSortedAccordingTo((a, b) -> ((Long) a).compareTo((Long) b));
+    }
+
+    @Test
+    public void searchComplexPagingTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        PageRequest pageRequest = PageRequest.of(2, 4, Sort.by(Sort.Direction.DESC, "age"));
+
+        // 2) When
+        Page<MemberTeamDto> result = shardedMemberRepository.searchComplex(memberSearchCondition, pageRequest);
+
+        // 3) Then
+        assertThat(result.getTotalElements()).as("샤드별 개수의 합").isEqualTo(30);
+        assertThat(result.getContent())
+                .extracting("age")
+                .containsExactly(41, 40, 34, 33);
+    }
+
+    @Test
+    public void teamNameRoutingTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("team3");
+
+        // 2) When
+        List<MemberTeamDto> result = shardedMemberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result).hasSize(5);
+        assertThat(result)
+                .extracting("teamId")
+                .as("팀 하나(한 샤드)의 회원만 나와야 한다.")
+                .containsOnly(result.get(0).getTeamId());
+    }
+
+    @Test
+    public void renamedTeamRoutingTest() throws Exception {
+        // 1) Given
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setTeamName("team3");
+        Long teamId = shardedMemberRepository.search(memberSearchCondition).get(0).getTeamId();
+        shardRegistry.byTeamId(teamId).getJdbcTemplate().update("UPDATE team SET name = 'team3-renamed' WHERE team_id = ?", teamId);
+
+        // 2) When
+        memberSearchCondition.setTeamName("team3-renamed");
+        List<MemberTeamDto> result = shardedMemberRepository.search(memberSearchCondition);
+
+        // 3) Then
+        assertThat(result).as("팀명이 바뀌어도 team_id 로 회원이 있는 샤드를 찾아야 한다.").hasSize(5);
+    }
+
+    @Test
+    public void ingestionWriteTest() throws Exception {
+        // 1) Given
+        Team teamA = shardedMemberRepository.saveTeam(new Team("ingestA"));
+        Team teamB = shardedMemberRepository.saveTeam(new Team("ingestB"));
+
+        // 2) When
+        int written = memberIngestionWriter.write(Arrays.asList(
+                new MemberCreateRequest("ingest1", 10, teamA.getId()),
+                new MemberCreateRequest("ingest2", 20, teamB.getId()),
+                new MemberCreateRequest("ingest3", 30, null)
+        ));
+
+        // 3) Then
+        assertThat(written).isEqualTo(3);
+        MemberSearchCondition memberSearchCondition = new MemberSearchCondition();
+        memberSearchCondition.setUsername("ingest2");
+        assertThat(shardedMemberRepository.search(memberSearchCondition))
+                .extracting("memberId")
+                .as("회원은 팀이 있는 샤드에 저장되어야 한다.")
+                .allMatch(memberId -> Shard.indexOf((Long) memberId) == Shard.indexOf(teamB.getId()));
+    }
+
+    @Test
+    public void searchSourceTest() throws Exception {
+        // 1) Given
+        // 2) When
+        MemberSearchSource.Source source = memberSearchSource.getSource("v2");
+
+        // 3) Then
+        assertThat(source).as("샤딩을 켜면 모든 엔드포인트가 샤드에서 검색해야 한다.").isEqualTo(MemberSearchSource.Source.SHARD);
+    }
+
+}
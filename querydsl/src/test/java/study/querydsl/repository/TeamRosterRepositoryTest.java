@@ -0,0 +1,64 @@
+package study.querydsl.repository;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.TeamRosterDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class TeamRosterRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TeamRosterRepository teamRosterRepository;
+
+    @Test
+    public void findAllTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        Team teamC = new Team("teamC");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+        entityManager.persist(teamC);
+        entityManager.persist(new Member("member2", 20, teamA));
+        entityManager.persist(new Member("member1, jr", 10, teamA)); // 쉼표가 들어간 회원명도 그대로 나뉜다.
+        entityManager.persist(new Member("member3", 30, teamB));
+        entityManager.persist(new Member("member4", 40)); // 팀이 없으면 빠진다.
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // 2) When
+        List<TeamRosterDto> roster = teamRosterRepository.findAll();
+
+        // 3) Then
+        assertThat(roster)
+                .extracting("teamName", "memberCount", "usernames")
+                .containsExactly(
+                        tuple("teamA", 2L, Arrays.asList("member1, jr", "member2")),
+                        tuple("teamB", 1L, Collections.singletonList("member3")),
+                        tuple("teamC", 0L, Collections.emptyList())
+                );
+        assertThat(statistics.getPrepareStatementCount()).as("팀이 몇 개든 쿼리 한 번").isEqualTo(1);
+    }
+
+}
@@ -0,0 +1,129 @@
+package study.querydsl.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.TeamStatsDto;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@Transactional
+class TeamStatsRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TeamStatsRepository teamStatsRepository;
+
+    @Autowired
+    private MemberJpaRepository memberJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Member member1;
+    private Member member4;
+    private Team teamA;
+
+    @BeforeEach
+    public void beforeTest() {
+        teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        entityManager.persist(teamA);
+        entityManager.persist(teamB);
+
+        member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        member4 = new Member("member4", 40, teamB);
+        entityManager.persist(member1);
+        entityManager.persist(member2);
+        entityManager.persist(member3);
+        entityManager.persist(member4);
+
+        entityManager.flush();
+    }
+
+    @Test
+    public void insertTest() throws Exception {
+        // 1) Given
+
+        // 2) When
+        List<TeamStatsDto> teamStats = teamStatsRepository.findAll();
+
+        // 3) Then
+        assertThat(teamStats)
+                .extracting("teamName", "memberCount", "ageAvg", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 2L, 15.0, 10, 20),
+                        tuple("teamB", 2L, 35.0, 30, 40)
+                );
+    }
+
+    @Test
+    public void updateAndDeleteTest() throws Exception {
+        // 1) Given
+        member4.setTeam(teamA); // teamB(30, 40) > teamA(10, 20, 40)
+        member1.setAge(5);
+        entityManager.flush();
+
+        // 2) When
+        entityManager.remove(member1);
+        entityManager.flush();
+
+        // 3) Then
+        assertThat(teamStatsRepository.findAll())
+                .extracting("teamName", "memberCount", "ageAvg", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 2L, 30.0, 20, 40),
+                        tuple("teamB", 1L, 30.0, 30, 30)
+                );
+    }
+
+    @Test
+    public void deltaTest() throws Exception {
+        // 1) Given
+        // 통계를 일부러 틀어 둔다. > 팀 전체를 다시 집계하면 바로잡히고, 증감분만 더하면 그대로 남는다.
+        jdbcTemplate.update("UPDATE team_stats SET member_count = 100, age_sum = 1000 WHERE team_id = ?", teamA.getId());
+
+        // 2) When
+        entityManager.persist(new Member("member5", 15, teamA));
+        entityManager.flush();
+
+        // 3) Then
+        assertThat(jdbcTemplate.queryForMap("SELECT member_count, age_sum, min_age, max_age FROM team_stats WHERE team_id = ?", teamA.getId()))
+                .containsEntry("MEMBER_COUNT", 101L)
+                .containsEntry("AGE_SUM", 1015L)
+                .containsEntry("MIN_AGE", 10)
+                .containsEntry("MAX_AGE", 20);
+    }
+
+    @Test
+    public void bulkTest() throws Exception {
+        // 1) Given
+
+        // 2) When
+        memberJpaRepository.bulkAddAge(1);
+        memberJpaRepository.bulkDeleteByAgeGreaterThan(40);
+
+        // 3) Then
+        assertThat(teamStatsRepository.findAll())
+                .extracting("teamName", "memberCount", "ageAvg", "minAge", "maxAge")
+                .containsExactly(
+                        tuple("teamA", 2L, 16.0, 11, 21),
+                        tuple("teamB", 1L, 31.0, 31, 31)
+                );
+    }
+
+}
@@ -0,0 +1,141 @@
+package study.querydsl.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.MemberExportManifest;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티션마다 다른 커넥션으로 읽으므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+class MemberExportServiceTest {
+
+    @Autowired
+    private MemberExportService memberExportService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void beforeEach() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Team teamA = new Team("teamA");
+            entityManager.persist(teamA);
+            for (int i = 1; i <= 5; i++) {
+                entityManager.persist(new Member("member" + i, i * 10, i % 2 == 0 ? teamA : null));
+            }
+            entityManager.persist(new Member("comma, \"quoted\"", 60));
+        });
+    }
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                entityManager.createQuery("select t from Team t", Team.class).getResultList().forEach(entityManager::remove));
+    }
+
+    @Test
+    public void ndjsonExportTest() throws Exception {
+        // 1) When
+        MemberExportManifest manifest = memberExportService.export(tempDir, 3, MemberExportService.Format.NDJSON);
+
+        // 2) Then
+        Path directory = tempDir.resolve(manifest.getExportId());
+        List<String> lines = new ArrayList<>();
+        for (MemberExportManifest.PartitionFile file : manifest.getFiles()) {
+            List<String> partitionLines = readGzip(directory.resolve(file.getFile()));
+            assertThat(partitionLines).hasSize((int) file.getRows());
+            lines.addAll(partitionLines);
+        }
+
+        assertThat(manifest.getRows()).isEqualTo(6);
+        assertThat(manifest.getFiles()).hasSize(3);
+        assertThat(Files.exists(directory.resolve(MemberExportService.MANIFEST))).isTrue();
+        // 파티션 파일을 순서대로 이어 붙이면 member_id 순서
+        List<Long> memberIds = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode node = objectMapper.readTree(line);
+            memberIds.add(node.get("memberId").asLong());
+        }
+        assertThat(memberIds).isSorted().hasSize(6);
+    }
+
+    @Test
+    public void csvExportTest() throws Exception {
+        // 1) When
+        MemberExportManifest manifest = memberExportService.export(tempDir, 1, MemberExportService.Format.CSV);
+
+        // 2) Then
+        List<String> lines = readGzip(tempDir.resolve(manifest.getExportId()).resolve(manifest.getFiles().get(0).getFile()));
+
+        assertThat(lines).hasSize(7); // 헤더 + 6
+        assertThat(lines.get(0)).isEqualTo("member_id,username,age,team_id,team_name");
+        assertThat(lines).anyMatch(line -> line.endsWith(",\"comma, \"\"quoted\"\"\",60,,"));
+        assertThat(lines).anyMatch(line -> line.contains(",member2,20,") && line.endsWith(",teamA"));
+    }
+
+    @Test
+    public void partitionsClampedToPoolSizeTest() throws Exception {
+        // 1) Given
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 1; i <= 30; i++) {
+                entityManager.persist(new Member("extra" + i, i));
+            }
+        });
+
+        // 2) When
+        MemberExportManifest manifest = memberExportService.export(tempDir, 100, MemberExportService.Format.CSV);
+
+        // 3) Then
+        // 파티션마다 커넥션 하나 > 커넥션 풀(hikari 기본 10)보다 적게 나눈다.
+        assertThat(memberExportService.getMaxPartitions()).isEqualTo(9);
+        assertThat(manifest.getFiles()).hasSizeLessThanOrEqualTo(memberExportService.getMaxPartitions());
+        assertThat(manifest.getRows()).isEqualTo(36);
+    }
+
+    private List<String> readGzip(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+}
@@ -0,0 +1,131 @@
+package study.querydsl.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.entity.Team;
+import study.querydsl.entity.dto.MemberImportResult;
+import study.querydsl.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberImportServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void importTest() throws Exception {
+        // 1) Given
+        Team teamA = new Team("teamA");
+        entityManager.persist(teamA);
+        entityManager.flush();
+
+        String json = "[" +
+                "{\"username\": \"import1\", \"age\": 10, \"teamName\": \"teamA\"}," +
+                "{\"username\": \"import2\", \"age\": 20, \"teamName\": \"teamC\", \"extra\": {\"ignored\": [1, 2]}}," +
+                "{\"username\": \"import3\", \"age\": \"abc\"}," +
+                "{\"age\": 40}," +
+                "{\"username\": \"import5\"}" +
+                "]";
+
+        // 2) When
+        MemberImportResult result = memberImportService.importMembers(stream(json));
+
+        // 3) Then
+        assertThat(result.getRead()).isEqualTo(5);
+        assertThat(result.getWritten()).isEqualTo(2);
+        assertThat(result.getSkipped()).as("age 형식 오류, username 없음, age 없음").isEqualTo(3);
+        assertThat(result.getTeamsCreated()).isEqualTo(1);
+        assertThat(result.isAborted()).isFalse();
+
+        entityManager.clear();
+        List<Member> import1 = memberRepository.findByUsername("import1");
+        assertThat(import1).hasSize(1);
+        assertThat(import1.get(0).getTeam().getId()).isEqualTo(teamA.getId());
+        assertThat(memberRepository.findByUsername("import2").get(0).getTeam().getName()).isEqualTo("teamC");
+        assertThat(memberRepository.findByUsername("import5")).isEmpty();
+    }
+
+    @Test
+    public void reimportIsIdempotentTest() throws Exception {
+        // 1) Given
+        memberImportService.importMembers(stream("[{\"username\": \"import1\", \"age\": 10}]"));
+
+        // 2) When
+        MemberImportResult result = memberImportService.importMembers(stream("[{\"username\": \"import1\", \"age\": 11}]"));
+
+        // 3) Then
+        assertThat(result.getWritten()).isEqualTo(1);
+
+        entityManager.clear();
+        List<Member> members = memberRepository.findByUsername("import1");
+        assertThat(members).as("같은 회원명은 다시 넣어도 한 명이어야 한다.").hasSize(1);
+        assertThat(members.get(0).getAge()).isEqualTo(11);
+        assertThat(members.get(0).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    public void brokenJsonTest() throws Exception {
+        // 1) Given
+        String json = "[{\"username\": \"import1\", \"age\": 10}, {\"username\": ";
+
+        // 2) When
+        MemberImportResult result = memberImportService.importMembers(stream(json));
+
+        // 3) Then
+        assertThat(result.isAborted()).isTrue();
+        assertThat(result.getWritten()).as("깨지기 전까지 읽은 행은 저장한다.").isEqualTo(1);
+    }
+
+    @Test
+    public void streamFailureTest() throws Exception {
+        // 1) Given
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1_000; i++) { // 배치 하나
+            json.append("{\"username\": \"import").append(i).append("\", \"age\": ").append(i).append("},");
+        }
+        InputStream disconnected = new SequenceInputStream(stream(json.toString()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        // 2) When
+        assertThatThrownBy(() -> memberImportService.importMembers(disconnected)).isInstanceOf(IOException.class);
+
+        // 3) Then
+        // 끊기기 전에 저장한 배치는 같은 트랜잭션에서 읽기 모델까지 맞춰졌다.
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member WHERE username LIKE 'import%'", Integer.class)).isEqualTo(1_000);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member_team_view WHERE username LIKE 'import%'", Integer.class)).isEqualTo(1_000);
+    }
+
+    private InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
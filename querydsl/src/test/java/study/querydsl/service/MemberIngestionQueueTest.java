@@ -0,0 +1,74 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.querydsl.entity.dto.MemberCreateRequest;
+import study.querydsl.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 큐는 별도 스레드/트랜잭션으로 저장하므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+class MemberIngestionQueueTest {
+
+    @Autowired
+    private MemberIngestionQueue memberIngestionQueue;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void writeBehindTest() throws Exception {
+        // 1) Given
+        double writtenBefore = meterRegistry.counter("member.ingest.written").count();
+
+        // 2) When
+        for (int i = 0; i < 10; i++) {
+            assertThat(memberIngestionQueue.offer(new MemberCreateRequest("ingest" + i, i, null))).isTrue();
+        }
+
+        // 3) Then
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.counter("member.ingest.written").count() < writtenBefore + 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(memberRepository.findByUsername("ingest9")).hasSize(1);
+        assertThat(meterRegistry.counter("member.ingest.written").count()).isEqualTo(writtenBefore + 10);
+        assertThat(memberIngestionQueue.depth()).isZero();
+    }
+
+    @Test
+    public void backpressureTest() throws Exception {
+        // 1) Given
+        // 시작하지 않은 큐 > 쓰기 스레드가 꺼내가지 않는다.
+        MemberIngestionQueue.MemberIngestionProperties properties = new MemberIngestionQueue.MemberIngestionProperties();
+        properties.setCapacity(2);
+        MemberIngestionQueue queue = new MemberIngestionQueue(null, properties, new SimpleMeterRegistry());
+
+        // 2) When
+        boolean first = queue.offer(new MemberCreateRequest("member1", 10, null));
+        boolean second = queue.offer(new MemberCreateRequest("member2", 20, null));
+        boolean third = queue.offer(new MemberCreateRequest("member3", 30, null));
+
+        // 3) Then
+        assertThat(first).isTrue();
+        assertThat(second).isTrue();
+        assertThat(third).as("큐가 가득 차면 거절해야 한다.").isFalse();
+        assertThat(queue.depth()).isEqualTo(2);
+    }
+
+}
@@ -0,0 +1,90 @@
+package study.querydsl.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.querydsl.entity.Member;
+import study.querydsl.repository.MemberRepository;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재시도는 트랜잭션을 새로 열어야 하므로 테스트 트랜잭션(@Transactional) 없이 실행하고 직접 지운다.
+ */
+@SpringBootTest
+class MemberServiceTest {
+
+    @Autowired
+    private MemberService memberService;
+
+    @Autowired
+    private OptimisticRetryTemplate optimisticRetryTemplate;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    public void afterEach() {
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    public void addAgeTest() throws Exception {
+        // 1) Given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+
+        // 2) When
+        memberService.addAge(member1.getId(), 5);
+
+        // 3) Then
+        Member result = memberRepository.findById(member1.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(result.getAge()).isEqualTo(15);
+        assertThat(result.getVersion()).as("수정하면 버전이 올라가야 한다.").isEqualTo(member1.getVersion() + 1);
+    }
+
+    @Test
+    public void retryOnConflictTest() throws Exception {
+        // 1) Given
+        Member member1 = memberRepository.save(new Member("member1", 10));
+
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        double retriesBefore = meterRegistry.counter("optimistic.lock.retries", "operation", "test.conflict").count();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // 2) When
+        // 첫 시도에서 읽은 뒤 다른 트랜잭션이 먼저 커밋하면 첫 시도는 충돌로 실패한다.
+        optimisticRetryTemplate.execute("test.conflict", () -> {
+            Member member = memberRepository.findById(member1.getId()).orElseThrow(IllegalStateException::new);
+            if (attempts.incrementAndGet() == 1) {
+                concurrent.executeWithoutResult(status -> memberRepository.findById(member1.getId())
+                        .orElseThrow(IllegalStateException::new)
+                        .setAge(100));
+            }
+            member.setAge(member.getAge() + 1);
+            return member;
+        });
+
+        // 3) Then
+        Member result = memberRepository.findById(member1.getId()).orElseThrow(IllegalStateException::new);
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(result.getAge()).as("다른 트랜잭션의 갱신 위에 더해져야 한다.").isEqualTo(101);
+        assertThat(meterRegistry.counter("optimistic.lock.retries", "operation", "test.conflict").count())
+                .isEqualTo(retriesBefore + 1);
+    }
+
+}
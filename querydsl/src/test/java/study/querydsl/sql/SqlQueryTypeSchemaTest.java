@@ -0,0 +1,72 @@
+package study.querydsl.sql;
+
+import com.querydsl.core.types.Path;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.RelationalPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 손으로 쓴 SQL Q타입을 JPA 엔티티가 만든 실제 스키마(DatabaseMetaData)와 비교한다.
+ * > 엔티티 컬럼을 바꾸고 Q타입을 안 바꾸면 여기서 깨진다.
+ */
+@SpringBootTest
+class SqlQueryTypeSchemaTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void memberTest() throws Exception {
+        assertThat(columnsOf(SMember.member)).isEqualTo(columnsOf(SMember.member.getSchemaName(), SMember.member.getTableName()));
+    }
+
+    @Test
+    public void teamTest() throws Exception {
+        assertThat(columnsOf(STeam.team)).isEqualTo(columnsOf(STeam.team.getSchemaName(), STeam.team.getTableName()));
+    }
+
+    @Test
+    public void memberTrigramTest() throws Exception {
+        assertThat(columnsOf(SMemberTrigram.memberTrigram))
+                .isEqualTo(columnsOf(SMemberTrigram.memberTrigram.getSchemaName(), SMemberTrigram.memberTrigram.getTableName()));
+    }
+
+    /**
+     * 컬럼명 > "JDBC 타입, null 허용"
+     */
+    private Map<String, String> columnsOf(RelationalPath<?> relationalPath) {
+        Map<String, String> columns = new TreeMap<>();
+        for (Path<?> column : relationalPath.getColumns()) {
+            ColumnMetadata metadata = relationalPath.getMetadata(column);
+            columns.put(metadata.getName(), metadata.getJdbcType() + ", " + metadata.isNullable());
+        }
+        return columns;
+    }
+
+    private Map<String, String> columnsOf(String schema, String table) throws SQLException {
+        Map<String, String> columns = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.getMetaData().getColumns(null, schema, table, null)) {
+            while (resultSet.next()) {
+                columns.put(
+                        resultSet.getString("COLUMN_NAME"),
+                        resultSet.getInt("DATA_TYPE") + ", " + (resultSet.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls)
+                );
+            }
+        }
+        return columns;
+    }
+
+}